@@ -0,0 +1,243 @@
+package EffortLogger;
+
+//
+//File Name: AesGcmStreamCipher.java
+//Creator: Team Th15
+//Last Updated: 10/18/2026
+//Project: CSE360 Team Th15 EFFORTLOGGER V2
+//Description: 	This file contains an authenticated cipher for streams: AES in GCM mode, applied to the data in chunks
+//				of a fixed size so memory use does not grow with the file. Every chunk is encrypted with its own nonce,
+//				made of a random prefix chosen for the file and the chunk's number, and carries its own tag, so a
+//				changed, reordered, or removed chunk is detected. The last chunk is marked, so a cut-off file is
+//				detected too.
+//
+//				Format: "ELG1", the 8-byte nonce prefix, then for every chunk a 4-byte plaintext length (with the top
+//				bit set on the last chunk) followed by the encrypted chunk and its 16-byte tag.
+
+
+import javax.crypto.AEADBadTagException;
+import javax.crypto.Cipher;
+import javax.crypto.KeyGenerator;
+import javax.crypto.SecretKey;
+import javax.crypto.spec.GCMParameterSpec;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.security.GeneralSecurityException;
+import java.security.SecureRandom;
+import java.util.Arrays;
+
+public class AesGcmStreamCipher implements StreamCipher {
+
+    // Identifies the format of the encrypted stream
+    private static final byte[] MAGIC = {'E', 'L', 'G', '1'};
+
+    // Length of the random part of each chunk's nonce, and of the authentication tag
+    private static final int NONCE_PREFIX_SIZE = 8;
+    private static final int TAG_SIZE = 16;
+
+    // Marks the length of the last chunk
+    private static final int LAST_CHUNK_FLAG = 0x80000000;
+
+    private static final SecureRandom random = new SecureRandom();
+
+    private final SecretKey key;
+
+    /**
+     * Creates a cipher that encrypts and decrypts with the given key.
+     *
+     * @param key An AES key of 128, 192, or 256 bits.
+     */
+    public AesGcmStreamCipher(SecretKey key)
+    {
+        this.key = key;
+    }
+
+    /**
+     * Generates a random 256-bit AES key.
+     *
+     * @return The new key.
+     * @throws IOException If AES is not available.
+     */
+    public static SecretKey generateKey() throws IOException
+    {
+        try
+        {
+            KeyGenerator generator = KeyGenerator.getInstance("AES");
+            generator.init(256, random);
+            return generator.generateKey();
+        }
+        catch (GeneralSecurityException e)
+        {
+            throw new IOException("AES is not available", e);
+        }
+    }
+
+    //--------------------------------------------cipher methods--------------------------------------------------------------
+
+    @Override
+    public void encrypt(ReadableByteChannel in, WritableByteChannel out) throws IOException
+    {
+        byte[] noncePrefix = new byte[NONCE_PREFIX_SIZE];
+        random.nextBytes(noncePrefix);
+
+        ByteBuffer header = ByteBuffer.allocate(MAGIC.length + NONCE_PREFIX_SIZE);
+        header.put(MAGIC).put(noncePrefix).flip();
+        writeFully(header, out);
+
+        ByteBuffer plain = ByteBuffer.allocateDirect(BUFFER_SIZE);
+        ByteBuffer sealed = ByteBuffer.allocateDirect(4 + BUFFER_SIZE + TAG_SIZE);
+        Cipher cipher = newCipher();
+        int chunk = 0;
+        boolean last = false;
+        while (!last)
+        {
+            // A chunk that is not full is the last one; if the data ends on a chunk boundary, an empty last chunk follows
+            last = !readFully(in, plain);
+            plain.flip();
+
+            int lengthField = plain.remaining() | (last ? LAST_CHUNK_FLAG : 0);
+            sealed.clear();
+            sealed.putInt(lengthField);
+            try
+            {
+                cipher.init(Cipher.ENCRYPT_MODE, key, nonce(noncePrefix, chunk));
+                cipher.updateAAD(intBytes(lengthField));
+                cipher.doFinal(plain, sealed);
+            }
+            catch (GeneralSecurityException e)
+            {
+                throw new IOException("Chunk " + chunk + " could not be encrypted", e);
+            }
+            sealed.flip();
+            writeFully(sealed, out);
+
+            plain.clear();
+            chunk++;
+        }
+    }
+
+    @Override
+    public void decrypt(ReadableByteChannel in, WritableByteChannel out) throws IOException
+    {
+        ByteBuffer header = ByteBuffer.allocate(MAGIC.length + NONCE_PREFIX_SIZE);
+        if (!readFully(in, header) || !Arrays.equals(Arrays.copyOf(header.array(), MAGIC.length), MAGIC))
+        {
+            throw new IOException("Not an AES-GCM encrypted stream");
+        }
+        byte[] noncePrefix = Arrays.copyOfRange(header.array(), MAGIC.length, header.capacity());
+
+        ByteBuffer lengthBuffer = ByteBuffer.allocate(4);
+        ByteBuffer sealed = ByteBuffer.allocateDirect(BUFFER_SIZE + TAG_SIZE);
+        ByteBuffer plain = ByteBuffer.allocateDirect(BUFFER_SIZE);
+        Cipher cipher = newCipher();
+        int chunk = 0;
+        boolean last = false;
+        while (!last)
+        {
+            lengthBuffer.clear();
+            if (!readFully(in, lengthBuffer))
+            {
+                throw new IOException("Encrypted stream is cut off after chunk " + chunk);
+            }
+            int lengthField = lengthBuffer.getInt(0);
+            int length = lengthField & ~LAST_CHUNK_FLAG;
+            last = (lengthField & LAST_CHUNK_FLAG) != 0;
+            if (length > BUFFER_SIZE)
+            {
+                throw new IOException("Chunk " + chunk + " is too long: " + length + " bytes");
+            }
+
+            sealed.clear().limit(length + TAG_SIZE);
+            if (!readFully(in, sealed))
+            {
+                throw new IOException("Encrypted stream is cut off in chunk " + chunk);
+            }
+            sealed.flip();
+
+            plain.clear();
+            try
+            {
+                cipher.init(Cipher.DECRYPT_MODE, key, nonce(noncePrefix, chunk));
+                cipher.updateAAD(intBytes(lengthField));
+                cipher.doFinal(sealed, plain);
+            }
+            catch (AEADBadTagException e)
+            {
+                throw new IOException("Chunk " + chunk + " failed authentication; the data was changed or the key is wrong", e);
+            }
+            catch (GeneralSecurityException e)
+            {
+                throw new IOException("Chunk " + chunk + " could not be decrypted", e);
+            }
+            plain.flip();
+            writeFully(plain, out);
+            chunk++;
+        }
+
+        // Nothing may follow the last chunk
+        if (in.read(ByteBuffer.allocate(1)) > 0)
+        {
+            throw new IOException("Unexpected data after the last chunk");
+        }
+    }
+
+    //--------------------------------------------helper methods--------------------------------------------------------------
+
+    /**
+     * @return A new AES-GCM cipher instance.
+     * @throws IOException If AES-GCM is not available.
+     */
+    private static Cipher newCipher() throws IOException
+    {
+        try
+        {
+            return Cipher.getInstance("AES/GCM/NoPadding");
+        }
+        catch (GeneralSecurityException e)
+        {
+            throw new IOException("AES-GCM is not available", e);
+        }
+    }
+
+    /**
+     * Builds the nonce of a chunk: the stream's random prefix followed by the chunk number.
+     */
+    private static GCMParameterSpec nonce(byte[] noncePrefix, int chunk)
+    {
+        byte[] nonce = Arrays.copyOf(noncePrefix, NONCE_PREFIX_SIZE + 4);
+        ByteBuffer.wrap(nonce, NONCE_PREFIX_SIZE, 4).putInt(chunk);
+        return new GCMParameterSpec(TAG_SIZE * 8, nonce);
+    }
+
+    private static byte[] intBytes(int value)
+    {
+        return ByteBuffer.allocate(4).putInt(value).array();
+    }
+
+    /**
+     * Reads until the buffer is full or the channel ends.
+     *
+     * @return true if the buffer was filled, false if the channel ended first.
+     */
+    private static boolean readFully(ReadableByteChannel in, ByteBuffer buffer) throws IOException
+    {
+        while (buffer.hasRemaining())
+        {
+            if (in.read(buffer) < 0)
+            {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static void writeFully(ByteBuffer buffer, WritableByteChannel out) throws IOException
+    {
+        while (buffer.hasRemaining())
+        {
+            out.write(buffer);
+        }
+    }
+}
@@ -0,0 +1,151 @@
+package EffortLogger;
+
+//
+//File Name: AsyncIOService.java
+//Creator: Team Th15
+//Last Updated: 10/18/2026
+//Project: CSE360 Team Th15 EFFORTLOGGER V2
+//Description: This class runs file reads, writes, and encryption for the Swing windows on a background I/O thread,
+//             so the event dispatch thread never waits on the disk. Results are handed back on the event dispatch
+//             thread. Tasks that take noticeable time show a progress dialog with a Cancel button.
+//
+
+import javax.swing.*;
+import java.awt.*;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Consumer;
+
+public class AsyncIOService {
+
+    // Delay before the progress dialog appears, so quick tasks do not flash a dialog
+    private static final int PROGRESS_DELAY_MILLIS = 300;
+
+    // A single I/O thread keeps tasks in submission order, e.g. starting and stopping the effort clock
+    private static final ExecutorService executor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "EffortLogger-IO");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    /**
+     * Runs a task on the I/O thread without any progress indication.
+     *
+     * @param task The task to run.
+     * @return A future completed with the task's result.
+     */
+    public static <T> CompletableFuture<T> submit(Callable<T> task) {
+        CompletableFuture<T> result = new CompletableFuture<>();
+        Future<?> work = executor.submit(() -> {
+            try {
+                result.complete(task.call());
+            } catch (Throwable t) {
+                result.completeExceptionally(t);
+            }
+        });
+
+        // Cancelling the result interrupts the task if it is already running
+        result.whenComplete((value, error) -> {
+            if (result.isCancelled()) {
+                work.cancel(true);
+            }
+        });
+        return result;
+    }
+
+    /**
+     * Runs a task on the I/O thread and delivers its outcome on the event dispatch thread.
+     * If the task is still running after a short delay, a progress dialog with a Cancel button is shown.
+     * Must be called on the event dispatch thread.
+     *
+     * @param parent    Component the progress dialog is centered on; may be null.
+     * @param message   Text shown in the progress dialog.
+     * @param task      The task to run on the I/O thread.
+     * @param onSuccess Called on the event dispatch thread with the task's result.
+     * @param onFailure Called on the event dispatch thread if the task fails; not called when cancelled.
+     * @return A future for the task; cancelling it stops the task.
+     */
+    public static <T> CompletableFuture<T> run(Component parent, String message, Callable<T> task,
+                                               Consumer<T> onSuccess, Consumer<Throwable> onFailure) {
+        CompletableFuture<T> result = submit(task);
+
+        // Progress dialog, shown only if the task does not finish within the delay
+        JDialog progressDialog = createProgressDialog(parent, message, result);
+        Timer progressTimer = new Timer(PROGRESS_DELAY_MILLIS, e -> {
+            if (!result.isDone()) {
+                progressDialog.setVisible(true);
+            }
+        });
+        progressTimer.setRepeats(false);
+        progressTimer.start();
+
+        result.whenComplete((value, error) -> SwingUtilities.invokeLater(() -> {
+            progressTimer.stop();
+            progressDialog.dispose();
+
+            if (result.isCancelled()) {
+                return; // The user cancelled; nothing to report
+            }
+            if (error != null) {
+                onFailure.accept(unwrap(error));
+            } else {
+                onSuccess.accept(value);
+            }
+        }));
+
+        return result;
+    }
+
+    /**
+     * Creates the modeless progress dialog for a task.
+     *
+     * @param parent  Component the dialog is centered on; may be null.
+     * @param message Text shown in the dialog.
+     * @param result  The task's future, cancelled by the Cancel button.
+     * @return The dialog, not yet visible.
+     */
+    private static JDialog createProgressDialog(Component parent, String message, CompletableFuture<?> result) {
+        Window owner = parent == null ? null : SwingUtilities.getWindowAncestor(parent);
+        if (owner == null && parent instanceof Window) {
+            owner = (Window) parent;
+        }
+
+        JDialog dialog = new JDialog(owner, "Please Wait", Dialog.ModalityType.MODELESS);
+        dialog.setDefaultCloseOperation(WindowConstants.DO_NOTHING_ON_CLOSE);
+
+        JProgressBar progressBar = new JProgressBar();
+        progressBar.setIndeterminate(true); // The length of file operations is not known in advance
+
+        JButton cancelButton = new JButton("Cancel");
+        cancelButton.addActionListener(e -> result.cancel(true));
+
+        JPanel contentPanel = new JPanel(new BorderLayout(5, 5));
+        contentPanel.setBorder(BorderFactory.createEmptyBorder(10, 10, 10, 10));
+        contentPanel.add(new JLabel(message), BorderLayout.NORTH);
+        contentPanel.add(progressBar, BorderLayout.CENTER);
+        contentPanel.add(cancelButton, BorderLayout.SOUTH);
+
+        dialog.setContentPane(contentPanel);
+        dialog.pack();
+        dialog.setLocationRelativeTo(parent);
+        return dialog;
+    }
+
+    /**
+     * Strips the wrappers CompletableFuture puts around a task's exception.
+     *
+     * @param error The exception reported by the future.
+     * @return The exception thrown by the task.
+     */
+    private static Throwable unwrap(Throwable error) {
+        if ((error instanceof CompletionException || error instanceof CancellationException) && error.getCause() != null) {
+            return error.getCause();
+        }
+        return error;
+    }
+}
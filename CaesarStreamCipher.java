@@ -0,0 +1,147 @@
+package EffortLogger;
+
+//
+//File Name: CaesarStreamCipher.java
+//Creator: Team Th15
+//Last Updated: 10/18/2026
+//Project: CSE360 Team Th15 EFFORTLOGGER V2
+//Description: 	This file contains the streaming form of the Caesar cipher EffortLogger stores its files with. The data is
+//				decoded from UTF-8 one buffer at a time, every character is shifted by the key, and the result is
+//				encoded back to UTF-8, so the output is byte for byte what encryptString/decryptString produce for the
+//				whole file, while memory use stays at a few buffers no matter how large the file is.
+
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+
+public class CaesarStreamCipher implements StreamCipher {
+
+    private final int key;
+
+    /**
+     * Creates a Caesar cipher.
+     *
+     * @param key The amount each character is shifted by when encrypting.
+     */
+    public CaesarStreamCipher(int key)
+    {
+        this.key = key;
+    }
+
+    @Override
+    public void encrypt(ReadableByteChannel in, WritableByteChannel out) throws IOException
+    {
+        transform(in, out, key);
+    }
+
+    @Override
+    public void decrypt(ReadableByteChannel in, WritableByteChannel out) throws IOException
+    {
+        transform(in, out, -key);
+    }
+
+    /**
+     * Shifts every character of a UTF-8 stream.
+     *
+     * @param in    The data to shift.
+     * @param out   Receives the shifted data.
+     * @param shift The amount to add to each character.
+     * @throws IOException If reading or writing fails, or the input is not valid UTF-8.
+     */
+    private static void transform(ReadableByteChannel in, WritableByteChannel out, int shift) throws IOException
+    {
+        // Invalid input is rejected, as Files.readString does; characters that cannot be encoded after shifting,
+        // such as a surrogate pair split apart by the shift, become '?', as String.getBytes does
+        CharsetDecoder decoder = StandardCharsets.UTF_8.newDecoder()
+                .onMalformedInput(CodingErrorAction.REPORT).onUnmappableCharacter(CodingErrorAction.REPORT);
+        CharsetEncoder encoder = StandardCharsets.UTF_8.newEncoder()
+                .onMalformedInput(CodingErrorAction.REPLACE).onUnmappableCharacter(CodingErrorAction.REPLACE);
+
+        // The UTF-8 coders are only fast on array-backed buffers, so heap buffers beat direct ones here
+        ByteBuffer inBytes = ByteBuffer.allocate(BUFFER_SIZE);
+        CharBuffer chars = CharBuffer.allocate(BUFFER_SIZE);
+        ByteBuffer outBytes = ByteBuffer.allocate(BUFFER_SIZE);
+
+        int alreadyShifted = 0; // Characters carried over from the last round, e.g. the first half of a surrogate pair
+        boolean endOfInput = false;
+        boolean done = false;
+        while (!done)
+        {
+            if (!endOfInput)
+            {
+                endOfInput = in.read(inBytes) < 0;
+            }
+
+            // Decode what was read; an incomplete character at the end stays in the buffer for the next round
+            inBytes.flip();
+            CoderResult decoded = decoder.decode(inBytes, chars, endOfInput);
+            check(decoded);
+            done = endOfInput && decoded.isUnderflow() && decoder.flush(chars).isUnderflow();
+            inBytes.compact();
+
+            // Shift the newly decoded characters in place
+            chars.flip();
+            char[] array = chars.array();
+            for (int i = alreadyShifted; i < chars.limit(); i++)
+            {
+                array[i] = (char) (array[i] + shift);
+            }
+
+            // Encode and write until the characters are used up
+            CoderResult result;
+            do
+            {
+                result = encoder.encode(chars, outBytes, done);
+                if (result.isOverflow())
+                {
+                    writeFully(outBytes, out);
+                }
+            }
+            while (result.isOverflow());
+            check(result);
+            if (done)
+            {
+                while (encoder.flush(outBytes).isOverflow())
+                {
+                    writeFully(outBytes, out);
+                }
+            }
+            writeFully(outBytes, out);
+
+            alreadyShifted = chars.remaining();
+            chars.compact();
+        }
+    }
+
+    /**
+     * Writes the content of a buffer and clears it for reuse.
+     */
+    private static void writeFully(ByteBuffer buffer, WritableByteChannel out) throws IOException
+    {
+        buffer.flip();
+        while (buffer.hasRemaining())
+        {
+            out.write(buffer);
+        }
+        buffer.clear();
+    }
+
+    /**
+     * Throws the exception matching a coding error, e.g. MalformedInputException for invalid UTF-8.
+     */
+    private static void check(CoderResult result) throws IOException
+    {
+        if (result.isError())
+        {
+            result.throwException();
+        }
+    }
+}
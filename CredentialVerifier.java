@@ -0,0 +1,200 @@
+package EffortLogger;
+
+//
+//File Name: CredentialVerifier.java
+//Creator: Team Th15
+//Last Updated: 10/18/2026
+//Project: CSE360 Team Th15 EFFORTLOGGER V2
+//Description: 	This file verifies passwords against salted PBKDF2 hashes and hands out tokens for verified logins.
+//				The hash of each user's password is written into the credential header of the user file when the
+//				account is created or migrated, and copied into the user index (see UserIndex), so a login derives one
+//				key and compares it in constant time instead of reading the user file. Every successful login gets a
+//				random token, remembered in a bounded least-recently-used cache; presenting the token again, as
+//				integration scripts logging in repeatedly do, skips the key derivation.
+
+
+import javax.crypto.SecretKeyFactory;
+import javax.crypto.spec.PBEKeySpec;
+import java.io.IOException;
+import java.nio.file.*;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+public class CredentialVerifier {
+
+    // Key derivation used for new hashes; the number of iterations is stored with each hash
+    private static final String ALGORITHM = "PBKDF2WithHmacSHA256";
+    private static final int ITERATIONS = Integer.getInteger("effortlogger.pbkdf2Iterations", 210_000);
+    private static final int SALT_SIZE = 16;
+    private static final int HASH_SIZE = 32;
+
+    // Largest number of verified login tokens remembered
+    private static final int TOKEN_CACHE_SIZE = Integer.getInteger("effortlogger.tokenCacheSize", 256);
+
+    private static final SecureRandom random = new SecureRandom();
+
+    // Verified logins by token, least recently used first; guarded by itself
+    private static final Map<String, Verification> verifiedTokens = new LinkedHashMap<>(16, 0.75f, true)
+    {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Verification> eldest)
+        {
+            return size() > TOKEN_CACHE_SIZE;
+        }
+    };
+
+    /**
+     * A verified login: the user file and its modification time when the password was verified.
+     */
+    private static class Verification
+    {
+        final Path userFile;
+        final long lastModified;
+
+        Verification(Path userFile, long lastModified)
+        {
+            this.userFile = userFile;
+            this.lastModified = lastModified;
+        }
+    }
+
+    //--------------------------------------------login methods--------------------------------------------------------------
+
+    /**
+     * Verifies a username and password and hands out a token for the login.
+     *
+     * @param userName The username.
+     * @param password The password.
+     * @return A token to pass to verifyToken(), or null if the credentials do not match.
+     * @throws IOException If an I/O error occurs.
+     */
+    public static String login(String userName, String password) throws IOException
+    {
+        Path userFile = UserIndex.findUserFile(userName, password);
+        if (userFile == null)
+        {
+            return null;
+        }
+
+        byte[] tokenBytes = new byte[32];
+        random.nextBytes(tokenBytes);
+        String token = Base64.getUrlEncoder().withoutPadding().encodeToString(tokenBytes);
+        synchronized (verifiedTokens)
+        {
+            verifiedTokens.put(token, new Verification(userFile, userFile.toFile().lastModified()));
+        }
+        return token;
+    }
+
+    /**
+     * Retrieves the user file of an earlier login without verifying the password again.
+     * The token stops working if the user file changed since, e.g. because the password was changed.
+     *
+     * @param token A token handed out by login().
+     * @return The user file, or null if the token is unknown, was evicted, or the user file changed.
+     */
+    public static Path verifyToken(String token)
+    {
+        synchronized (verifiedTokens)
+        {
+            Verification verification = verifiedTokens.get(token);
+            if (verification == null)
+            {
+                return null;
+            }
+            if (verification.userFile.toFile().lastModified() != verification.lastModified)
+            {
+                verifiedTokens.remove(token);
+                return null;
+            }
+            return verification.userFile;
+        }
+    }
+
+    /**
+     * Forgets a token, so it can no longer be used.
+     *
+     * @param token A token handed out by login().
+     */
+    public static void logout(String token)
+    {
+        synchronized (verifiedTokens)
+        {
+            verifiedTokens.remove(token);
+        }
+    }
+
+    //--------------------------------------------hash methods--------------------------------------------------------------
+
+    /**
+     * Hashes a password with a new random salt.
+     *
+     * @param password The password.
+     * @return The hash record "iterations:salt:hash", with salt and hash in Base64.
+     */
+    static String hash(String password)
+    {
+        byte[] salt = new byte[SALT_SIZE];
+        random.nextBytes(salt);
+        byte[] hash = derive(password, salt, ITERATIONS, HASH_SIZE);
+
+        Base64.Encoder encoder = Base64.getEncoder();
+        return ITERATIONS + ":" + encoder.encodeToString(salt) + ":" + encoder.encodeToString(hash);
+    }
+
+    /**
+     * Checks a password against a hash record written by hash(), comparing the hashes in constant time.
+     *
+     * @param password The password to check.
+     * @param record   The hash record.
+     * @return true if the password matches, false if it does not or the record is damaged.
+     */
+    static boolean matches(String password, String record)
+    {
+        String[] fields = record.split(":");
+        if (fields.length != 3)
+        {
+            return false;
+        }
+
+        try
+        {
+            int iterations = Integer.parseInt(fields[0]);
+            byte[] salt = Base64.getDecoder().decode(fields[1]);
+            byte[] expected = Base64.getDecoder().decode(fields[2]);
+            if (iterations < 1 || expected.length == 0)
+            {
+                return false;
+            }
+            return MessageDigest.isEqual(expected, derive(password, salt, iterations, expected.length));
+        }
+        catch (IllegalArgumentException e)
+        {
+            return false; // Not a number or not Base64
+        }
+    }
+
+    /**
+     * Derives a key from a password with PBKDF2.
+     */
+    private static byte[] derive(String password, byte[] salt, int iterations, int length)
+    {
+        PBEKeySpec spec = new PBEKeySpec(password.toCharArray(), salt, iterations, length * 8);
+        try
+        {
+            return SecretKeyFactory.getInstance(ALGORITHM).generateSecret(spec).getEncoded();
+        }
+        catch (GeneralSecurityException e)
+        {
+            throw new IllegalStateException(ALGORITHM + " is not available", e);
+        }
+        finally
+        {
+            spec.clearPassword();
+        }
+    }
+}
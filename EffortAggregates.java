@@ -0,0 +1,757 @@
+package EffortLogger;
+
+//
+//File Name: EffortAggregates.java
+//Creator: Team Th15
+//Last Updated: 10/18/2026
+//Project: CSE360 Team Th15 EFFORTLOGGER V2
+//Description: 	This file keeps running totals of logged effort for every user, so questions such as "hours per life
+//				cycle phase this week" are answered without reading the effort log. Each effort is counted once per
+//				dimension (project, life cycle, effort category, and deliverable) in the week it started, keeping its
+//				count, total duration, and a log-scaled histogram of durations for percentiles.
+//
+//				Efforts are logged through this class, which queues the record on the log writer of the week's segment.
+//				The caller does not update the totals: the writer thread adds each effort once its record is synced,
+//				together with the size of the segment up to that record, so the totals never count a record that is
+//				not on disk. The totals are saved in a sidecar file next to the log every few seconds, along with the
+//				size of each live segment they cover; the saver copies them under the user's lock and writes the file
+//				after releasing it. When a user's totals are loaded, any records written after that point, for example
+//				before a crash, are read from the segments and added, so the totals always match the log. Compaction of
+//				a user's segments is also done here; appends share a read lock that compaction takes exclusively, so no
+//				effort is appended to a segment while it is being compacted.
+
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.time.DayOfWeek;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.temporal.TemporalAdjusters;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+public class EffortAggregates {
+
+    // Dimensions efforts are totalled by
+    public static final String PROJECT = "project";
+    public static final String LIFE_CYCLE = "lifeCycle";
+    public static final String EFFORT_CATEGORY = "effortCategory";
+    public static final String DELIVERABLE = "deliverable";
+
+    // Version of the sidecar file format; totals saved in another format are rebuilt from the log
+    private static final String FORMAT_VERSION = "2";
+
+    // How often changed totals are saved, in milliseconds
+    private static final long SAVE_INTERVAL_MILLIS = Long.getLong("effortlogger.aggregateSaveMillis", 5000);
+
+    // Totals of each user, by absolute aggregate file path
+    private static final Map<Path, UserAggregates> aggregates = new ConcurrentHashMap<>();
+
+    // Saves changed totals in the background
+    private static final ScheduledExecutorService saver = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "EffortAggregates-save");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    static
+    {
+        saver.scheduleWithFixedDelay(EffortAggregates::saveAll, SAVE_INTERVAL_MILLIS, SAVE_INTERVAL_MILLIS, TimeUnit.MILLISECONDS);
+        EffortSegments.startCompactor();
+    }
+
+    //--------------------------------------------logging methods--------------------------------------------------------------
+
+    /**
+     * Logs an effort: queues its record on the writer of the segment of the week it started in. The writer thread
+     * adds the effort to the user's totals once the record is on disk. No lock is held while waiting for the disk.
+     *
+     * @param userFile       The user's credential file.
+     * @param record         The effort record, from EffortRecord.encodeEffort.
+     * @param startMillis    Start time of the effort in milliseconds since the epoch.
+     * @param durationNanos  Duration of the effort in nanoseconds.
+     * @param project        Project the effort was spent on.
+     * @param lifeCycle      Life cycle phase associated with the effort.
+     * @param effortCategory Category of the effort.
+     * @param deliverable    Deliverable the effort was spent on.
+     * @throws IOException If an I/O error occurs.
+     */
+    public static void logEffort(Path userFile, byte[] record, long startMillis, long durationNanos,
+                                 String project, String lifeCycle, String effortCategory, String deliverable) throws IOException
+    {
+        UserAggregates user = forUser(userFile);
+        Path segmentFile = EffortSegments.getSegmentFile(userFile, startMillis).toAbsolutePath();
+
+        // Shared with other appends; only waits while one of the user's weeks is being compacted
+        user.appendLock.readLock().lock();
+        try
+        {
+            EffortLogWriter.forFile(segmentFile).append(record, endOffset ->
+                    user.written(segmentFile, endOffset, startMillis, durationNanos, project, lifeCycle, effortCategory, deliverable));
+        }
+        finally
+        {
+            user.appendLock.readLock().unlock();
+        }
+
+        if (!user.touchedSegments.contains(segmentFile))
+        {
+            user.touchedSegments.add(segmentFile);
+        }
+    }
+
+    //--------------------------------------------query methods--------------------------------------------------------------
+
+    /**
+     * Retrieves the totals of one value of a dimension for one week, e.g. the "Drafting" life cycle phase.
+     *
+     * @param userFile  The user's credential file.
+     * @param weekStart Monday of the week, as returned by weekOf().
+     * @param dimension One of PROJECT, LIFE_CYCLE, EFFORT_CATEGORY, or DELIVERABLE.
+     * @param value     The value of the dimension.
+     * @return A copy of the totals; empty if nothing was logged.
+     * @throws IOException If the totals cannot be loaded.
+     */
+    public static Rollup getRollup(Path userFile, LocalDate weekStart, String dimension, String value) throws IOException
+    {
+        UserAggregates user = forUser(userFile);
+        user.flushTouchedSegments();
+        synchronized (user)
+        {
+            Rollup rollup = user.rollups.get(key(weekStart, dimension, value));
+            return rollup == null ? new Rollup() : rollup.copy();
+        }
+    }
+
+    /**
+     * Retrieves the totals of every value of a dimension for one week, e.g. hours per life cycle phase.
+     *
+     * @param userFile  The user's credential file.
+     * @param weekStart Monday of the week, as returned by weekOf().
+     * @param dimension One of PROJECT, LIFE_CYCLE, EFFORT_CATEGORY, or DELIVERABLE.
+     * @return Copies of the totals, by value of the dimension.
+     * @throws IOException If the totals cannot be loaded.
+     */
+    public static Map<String, Rollup> getRollups(Path userFile, LocalDate weekStart, String dimension) throws IOException
+    {
+        String prefix = key(weekStart, dimension, "");
+        Map<String, Rollup> result = new HashMap<>();
+
+        UserAggregates user = forUser(userFile);
+        user.flushTouchedSegments();
+        synchronized (user)
+        {
+            for (Map.Entry<String, Rollup> entry : user.rollups.entrySet())
+            {
+                if (entry.getKey().startsWith(prefix))
+                {
+                    result.put(entry.getKey().substring(prefix.length()), entry.getValue().copy());
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Retrieves the week an instant falls in, in the system time zone.
+     *
+     * @param epochMillis The instant, in milliseconds since the epoch.
+     * @return The Monday starting the week.
+     */
+    public static LocalDate weekOf(long epochMillis)
+    {
+        return Instant.ofEpochMilli(epochMillis).atZone(ZoneId.systemDefault()).toLocalDate()
+                .with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+    }
+
+    //--------------------------------------------persistence methods--------------------------------------------------------------
+
+    /**
+     * Compacts one week of a user's log. The week's queued records are counted and the totals saved first, so they
+     * cover the week's segment before it changes form, and appends for the user wait until the compaction is done.
+     *
+     * @param userFile  The user's credential file.
+     * @param weekStart Monday of the week to compact.
+     * @throws IOException If an I/O error occurs.
+     */
+    static void compact(Path userFile, LocalDate weekStart) throws IOException
+    {
+        UserAggregates user = forUser(userFile);
+        Path liveFile = UserStorage.getSegmentFile(userFile, weekStart).toAbsolutePath();
+
+        user.appendLock.writeLock().lock();
+        try
+        {
+            // Flushing runs the writer's callbacks, which take the user's monitor, so it must not be held here
+            EffortLogWriter.flush(liveFile);
+            user.save();
+
+            EffortSegments.compactWeek(userFile, weekStart);
+
+            // A live segment started later for the same week is new and must be counted from its start
+            synchronized (user)
+            {
+                user.coveredSizes.remove(liveFile.getFileName().toString());
+                user.dirty = true;
+            }
+            user.touchedSegments.remove(liveFile);
+            user.save();
+        }
+        finally
+        {
+            user.appendLock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Saves the totals of every user whose totals changed since they were last saved.
+     */
+    public static void saveAll()
+    {
+        for (UserAggregates user : aggregates.values())
+        {
+            try
+            {
+                user.save();
+            }
+            catch (IOException e)
+            {
+                e.printStackTrace(); // The totals are caught up from the log on the next load
+            }
+        }
+    }
+
+    /**
+     * Retrieves the totals of a user, loading them on first use.
+     *
+     * @param userFile The user's credential file.
+     * @return The user's totals.
+     * @throws IOException If the totals cannot be loaded.
+     */
+    private static UserAggregates forUser(Path userFile) throws IOException
+    {
+        Path aggregateFile = UserStorage.getAggregateFile(userFile).toAbsolutePath();
+        UserAggregates user = aggregates.get(aggregateFile);
+        if (user == null)
+        {
+            user = aggregates.computeIfAbsent(aggregateFile, key -> new UserAggregates(userFile.toAbsolutePath(), key));
+        }
+
+        // Only the first use of a user's totals locks
+        if (!user.loaded)
+        {
+            synchronized (user)
+            {
+                if (!user.loaded)
+                {
+                    user.load();
+                    user.loaded = true;
+                }
+            }
+        }
+        return user;
+    }
+
+    /**
+     * Builds the key of a week's totals for one value of a dimension.
+     *
+     * @param weekStart Monday of the week.
+     * @param dimension The dimension.
+     * @param value     The value of the dimension.
+     * @return The key.
+     */
+    private static String key(LocalDate weekStart, String dimension, String value)
+    {
+        return weekStart + "\t" + dimension + "\t" + value;
+    }
+
+    /**
+     * The totals of one user, and the segment sizes they cover; guarded by the object itself.
+     */
+    private static class UserAggregates
+    {
+        final Path userFile;
+        final Path aggregateFile;
+        final Map<String, Rollup> rollups = new HashMap<>();
+
+        // Size of each live segment counted in the totals, by file name; compacted segments are always fully counted
+        final Map<String, Long> coveredSizes = new HashMap<>();
+
+        // Live segments appended to by this process, flushed before the totals are read
+        final Set<Path> touchedSegments = ConcurrentHashMap.newKeySet();
+
+        // Held shared by appends and exclusively by compaction
+        final ReadWriteLock appendLock = new ReentrantReadWriteLock();
+
+        // Keeps saves in order, so an older copy of the totals never replaces a newer one
+        final Object saveLock = new Object();
+
+        volatile boolean loaded = false;
+        boolean dirty = false;
+
+        UserAggregates(Path userFile, Path aggregateFile)
+        {
+            this.userFile = userFile;
+            this.aggregateFile = aggregateFile;
+        }
+
+        /**
+         * Adds an effort to the totals of each of its dimensions. Empty values are not counted.
+         */
+        void add(long startMillis, long durationNanos, String project, String lifeCycle, String effortCategory, String deliverable)
+        {
+            LocalDate week = weekOf(startMillis);
+            addTo(week, PROJECT, project, durationNanos);
+            addTo(week, LIFE_CYCLE, lifeCycle, durationNanos);
+            addTo(week, EFFORT_CATEGORY, effortCategory, durationNanos);
+            addTo(week, DELIVERABLE, deliverable, durationNanos);
+            dirty = true;
+        }
+
+        private void addTo(LocalDate week, String dimension, String value, long durationNanos)
+        {
+            if (value == null || value.isEmpty())
+            {
+                return;
+            }
+            // Tabs and line breaks would break the sidecar format
+            String cleanValue = value.replace('\t', ' ').replace('\n', ' ');
+            rollups.computeIfAbsent(key(week, dimension, cleanValue), k -> new Rollup()).add(durationNanos);
+        }
+
+        /**
+         * Adds an effort whose record was synced to a live segment, and records that the totals now cover the
+         * segment up to the end of that record. Called on the segment's log writer thread.
+         */
+        synchronized void written(Path segmentFile, long endOffset, long startMillis, long durationNanos, String project,
+                                  String lifeCycle, String effortCategory, String deliverable)
+        {
+            add(startMillis, durationNanos, project, lifeCycle, effortCategory, deliverable);
+            coveredSizes.put(segmentFile.getFileName().toString(), endOffset);
+        }
+
+        /**
+         * Waits until the efforts queued by this process are counted, so a query sees every effort logged before it.
+         */
+        void flushTouchedSegments() throws IOException
+        {
+            for (Path segmentFile : touchedSegments)
+            {
+                EffortLogWriter.flush(segmentFile);
+            }
+        }
+
+        /**
+         * Adds the effort record a reader is positioned on; other records are ignored.
+         */
+        private void addRecord(EffortRecordReader reader)
+        {
+            if (reader.type() == EffortRecord.TYPE_EFFORT)
+            {
+                add(reader.startMillis(), reader.durationNanos(), reader.project(), reader.lifeCycle(),
+                        reader.effortCategory(), reader.deliverable());
+            }
+        }
+
+        /**
+         * Loads the saved totals, then adds the records written to live segments after they were saved.
+         * If there are no usable saved totals, or a live segment is smaller than its saved size (it was replaced),
+         * the totals are rebuilt from every segment.
+         */
+        void load() throws IOException
+        {
+            // Start over if an earlier attempt failed halfway
+            rollups.clear();
+            coveredSizes.clear();
+            boolean complete = readAggregateFile();
+            List<EffortSegments.Segment> segments = EffortSegments.listSegments(userFile);
+
+            // Records still queued from before are part of the segments the totals are checked against
+            for (EffortSegments.Segment segment : segments)
+            {
+                EffortLogWriter.flush(segment.getFile());
+                if (!segment.isCompacted() && Files.size(segment.getFile()) < coveredSize(segment.getFile()))
+                {
+                    complete = false;
+                }
+            }
+
+            if (!complete)
+            {
+                rollups.clear();
+                coveredSizes.clear();
+                dirty = true;
+            }
+
+            Set<String> liveNames = new HashSet<>();
+            for (EffortSegments.Segment segment : segments)
+            {
+                if (segment.isCompacted())
+                {
+                    if (!complete)
+                    {
+                        try (EffortRecordReader reader = EffortSegments.open(segment))
+                        {
+                            while (reader.next())
+                            {
+                                addRecord(reader);
+                            }
+                        }
+                    }
+                    continue;
+                }
+
+                String name = segment.getFile().getFileName().toString();
+                liveNames.add(name);
+                try (EffortRecordReader reader = new EffortRecordReader(segment.getFile()))
+                {
+                    reader.seek(coveredSize(segment.getFile()));
+                    while (reader.next())
+                    {
+                        addRecord(reader);
+                        coveredSizes.put(name, reader.endOffset());
+                    }
+                }
+            }
+
+            // Forget segments that were compacted or deleted
+            if (coveredSizes.keySet().retainAll(liveNames))
+            {
+                dirty = true;
+            }
+        }
+
+        private long coveredSize(Path segmentFile)
+        {
+            return coveredSizes.getOrDefault(segmentFile.getFileName().toString(), 0L);
+        }
+
+        /**
+         * Saves the totals if they changed. They are copied under the user's lock, which log writers wait for
+         * to count efforts, and written to disk after it is released. The saved sizes cover exactly the records
+         * counted in the totals, because both are updated together when a record is synced.
+         */
+        void save() throws IOException
+        {
+            synchronized (saveLock)
+            {
+                String content;
+                synchronized (this)
+                {
+                    if (!dirty)
+                    {
+                        return;
+                    }
+                    content = format();
+                    dirty = false;
+                }
+
+                try
+                {
+                    Files.createDirectories(aggregateFile.getParent());
+                    Path tempPath = aggregateFile.resolveSibling(aggregateFile.getFileName() + ".tmp");
+                    Files.writeString(tempPath, content, StandardCharsets.UTF_8);
+                    Files.move(tempPath, aggregateFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+                }
+                catch (IOException e)
+                {
+                    synchronized (this)
+                    {
+                        dirty = true; // Try again on the next save
+                    }
+                    throw e;
+                }
+            }
+        }
+
+        /**
+         * Formats the totals for the sidecar file: a header line with the number of covered segments and the
+         * format version, one line per segment with its size, then one line per week's totals for one value.
+         */
+        private String format()
+        {
+            StringBuilder content = new StringBuilder();
+            content.append("segments\t").append(coveredSizes.size()).append('\t').append(FORMAT_VERSION).append('\n');
+            for (Map.Entry<String, Long> entry : coveredSizes.entrySet())
+            {
+                content.append(entry.getKey()).append('\t').append(entry.getValue()).append('\n');
+            }
+            for (Map.Entry<String, Rollup> entry : rollups.entrySet())
+            {
+                String[] keyFields = entry.getKey().split("\t", 3);
+                content.append(keyFields[0]).append('\t')
+                       .append(keyFields[1]).append('\t')
+                       .append(EncryptDecrypt.encryptString(keyFields[2])).append('\t');
+                entry.getValue().appendTo(content);
+                content.append('\n');
+            }
+            return content.toString();
+        }
+
+        /**
+         * Reads the saved totals into memory, if they exist. Damaged total lines are skipped.
+         *
+         * @return true if the saved totals were read, false if they are missing, their header is damaged, or they
+         * were saved in an older format, e.g. with the coarser histogram, so the totals are rebuilt from the log.
+         */
+        private boolean readAggregateFile() throws IOException
+        {
+            if (!Files.exists(aggregateFile))
+            {
+                return false;
+            }
+
+            String[] lines = Files.readString(aggregateFile, StandardCharsets.UTF_8).split("\n");
+            int segmentCount;
+            try
+            {
+                String[] header = lines[0].split("\t");
+                if (!header[0].equals("segments") || header.length < 3 || !header[2].equals(FORMAT_VERSION))
+                {
+                    return false;
+                }
+                segmentCount = Integer.parseInt(header[1]);
+                for (int i = 1; i <= segmentCount; i++)
+                {
+                    String[] fields = lines[i].split("\t");
+                    coveredSizes.put(fields[0], Long.parseLong(fields[1]));
+                }
+            }
+            catch (RuntimeException e)
+            {
+                coveredSizes.clear();
+                return false;
+            }
+
+            for (int i = segmentCount + 1; i < lines.length; i++)
+            {
+                String[] fields = lines[i].split("\t", 4);
+                if (fields.length != 4)
+                {
+                    continue;
+                }
+
+                try
+                {
+                    String value = EncryptDecrypt.decryptString(fields[2]);
+                    rollups.put(key(LocalDate.parse(fields[0]), fields[1], value), Rollup.parse(fields[3]));
+                }
+                catch (RuntimeException e)
+                {
+                    // Skip damaged lines
+                }
+            }
+            return true;
+        }
+    }
+
+    /**
+     * The totals of one value of a dimension for one week: number of efforts, total duration, shortest and longest
+     * duration, and a histogram of durations in milliseconds. The histogram has sixteen buckets per power of two, so
+     * percentiles are accurate to within about 3%, and they never fall outside the shortest and longest duration.
+     */
+    public static final class Rollup
+    {
+        // Sixteen buckets per power of two; the histogram only grows as far as the longest duration needs
+        private static final int SUB_BUCKET_BITS = 4;
+        private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+
+        private long count;
+        private long totalNanos;
+        private long minMillis = Long.MAX_VALUE;
+        private long maxMillis;
+        private long[] buckets = new long[0];
+
+        private Rollup()
+        {
+        }
+
+        /**
+         * @return Number of efforts.
+         */
+        public long getCount()
+        {
+            return count;
+        }
+
+        /**
+         * @return Total duration of the efforts, in nanoseconds.
+         */
+        public long getTotalNanos()
+        {
+            return totalNanos;
+        }
+
+        /**
+         * @return Total duration of the efforts, in hours.
+         */
+        public double getTotalHours()
+        {
+            return totalNanos / 3_600_000_000_000.0;
+        }
+
+        /**
+         * @return Average duration of the efforts in nanoseconds, or 0 if there are none.
+         */
+        public long getMeanNanos()
+        {
+            return count == 0 ? 0 : totalNanos / count;
+        }
+
+        /**
+         * @return Shortest duration of the efforts in milliseconds, or 0 if there are none.
+         */
+        public long getMinMillis()
+        {
+            return count == 0 ? 0 : minMillis;
+        }
+
+        /**
+         * @return Longest duration of the efforts in milliseconds, or 0 if there are none.
+         */
+        public long getMaxMillis()
+        {
+            return maxMillis;
+        }
+
+        /**
+         * Estimates a percentile of the effort durations from the histogram. The lowest and highest ranks are the
+         * exact shortest and longest durations, and no estimate falls outside them.
+         *
+         * @param percentile The percentile, between 0 and 100.
+         * @return The estimated duration in milliseconds, or 0 if there are no efforts.
+         */
+        public long getPercentileMillis(double percentile)
+        {
+            if (count == 0)
+            {
+                return 0;
+            }
+
+            long rank = Math.max(1, (long) Math.ceil(count * Math.min(100, Math.max(0, percentile)) / 100));
+            if (rank == 1)
+            {
+                return minMillis;
+            }
+            if (rank == count)
+            {
+                return maxMillis;
+            }
+
+            long seen = 0;
+            for (int i = 0; i < buckets.length; i++)
+            {
+                seen += buckets[i];
+                if (seen >= rank)
+                {
+                    return Math.min(maxMillis, Math.max(minMillis, (bucketLow(i) + bucketHigh(i)) / 2));
+                }
+            }
+            return maxMillis;
+        }
+
+        private void add(long durationNanos)
+        {
+            long millis = Math.max(0, durationNanos / 1_000_000);
+            count++;
+            totalNanos += durationNanos;
+            minMillis = Math.min(minMillis, millis);
+            maxMillis = Math.max(maxMillis, millis);
+            addToBucket(bucketIndex(millis), 1);
+        }
+
+        private void addToBucket(int index, long efforts)
+        {
+            if (index >= buckets.length)
+            {
+                // Grow a whole power of two at a time
+                buckets = Arrays.copyOf(buckets, (index / SUB_BUCKETS + 1) * SUB_BUCKETS);
+            }
+            buckets[index] += efforts;
+        }
+
+        private Rollup copy()
+        {
+            Rollup copy = new Rollup();
+            copy.count = count;
+            copy.totalNanos = totalNanos;
+            copy.minMillis = minMillis;
+            copy.maxMillis = maxMillis;
+            copy.buckets = buckets.clone();
+            return copy;
+        }
+
+        /**
+         * Finds the histogram bucket of a duration: durations below 16 ms get a bucket each, longer ones are
+         * split into sixteen buckets per power of two.
+         */
+        private static int bucketIndex(long millis)
+        {
+            if (millis < SUB_BUCKETS)
+            {
+                return (int) millis;
+            }
+            int exponent = 63 - Long.numberOfLeadingZeros(millis);
+            int shift = exponent - SUB_BUCKET_BITS;
+            return (shift + 1) * SUB_BUCKETS + (int) ((millis >>> shift) & (SUB_BUCKETS - 1));
+        }
+
+        private static long bucketLow(int index)
+        {
+            if (index < SUB_BUCKETS)
+            {
+                return index;
+            }
+            int shift = index / SUB_BUCKETS - 1;
+            return ((long) SUB_BUCKETS + index % SUB_BUCKETS) << shift;
+        }
+
+        private static long bucketHigh(int index)
+        {
+            return index < SUB_BUCKETS ? index : bucketLow(index) + (1L << (index / SUB_BUCKETS - 1)) - 1;
+        }
+
+        /**
+         * Writes the totals as "count sum min max bucket:count ...", listing only non-empty buckets.
+         */
+        private void appendTo(StringBuilder content)
+        {
+            content.append(count).append(' ').append(totalNanos).append(' ').append(getMinMillis()).append(' ').append(maxMillis);
+            for (int i = 0; i < buckets.length; i++)
+            {
+                if (buckets[i] != 0)
+                {
+                    content.append(' ').append(i).append(':').append(buckets[i]);
+                }
+            }
+        }
+
+        private static Rollup parse(String text)
+        {
+            String[] parts = text.trim().split(" ");
+            Rollup rollup = new Rollup();
+            rollup.count = Long.parseLong(parts[0]);
+            rollup.totalNanos = Long.parseLong(parts[1]);
+            rollup.minMillis = Long.parseLong(parts[2]);
+            rollup.maxMillis = Long.parseLong(parts[3]);
+            for (int i = 4; i < parts.length; i++)
+            {
+                int colon = parts[i].indexOf(':');
+                rollup.addToBucket(Integer.parseInt(parts[i].substring(0, colon)), Long.parseLong(parts[i].substring(colon + 1)));
+            }
+            return rollup;
+        }
+    }
+}
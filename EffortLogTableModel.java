@@ -0,0 +1,243 @@
+package EffortLogger;
+
+//
+//File Name: EffortLogTableModel.java
+//Creator: Team Th15
+//Last Updated: 10/18/2026
+//Project: CSE360 Team Th15 EFFORTLOGGER V2
+//Description: This class is the table model behind the "View My Data" window. It does not load the effort log into
+//             memory. When it is created it only steps over the record headers of each live log segment and remembers
+//             the offset of every PAGE_SIZE-th record of the segment; for compacted segments it reads the record count
+//             of each block from the block table, without decompressing anything. Rows are decoded and decrypted a page
+//             at a time when the table asks for them. Only the segment, or the single compacted block, of the page
+//             being read is open, and only a few pages are kept, so memory stays flat however long the log grows.
+//
+
+import javax.swing.table.AbstractTableModel;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.*;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+@SuppressWarnings("serial")
+public class EffortLogTableModel extends AbstractTableModel implements Closeable {
+
+    // Number of records decoded together, and number of decoded pages kept in memory
+    private static final int PAGE_SIZE = 256;
+    private static final int CACHED_PAGES = 8;
+
+    private static final String[] COLUMN_NAMES = {"#", "Date", "Start", "End", "Duration", "Life Cycle", "Effort Category", "Project", "Deliverable"};
+
+    // The log segments, in time order, and which of them are compacted
+    private final List<Path> segmentFiles = new ArrayList<>();
+    private final List<Boolean> segmentsCompacted = new ArrayList<>();
+    private final int rowCount;
+
+    // For every page: its segment, its block in a compacted segment (-1 in a live segment), and its first row.
+    // The position of a page's first record is a file offset in a live segment, and a number of records to skip
+    // in a compacted block. Pages do not span segments or blocks.
+    private final int[] pageSegments;
+    private final int[] pageBlocks;
+    private final long[] pagePositions;
+    private final int[] pageFirstRows;
+
+    // Reader over the segment or block of the page read last, closed when a page elsewhere is read
+    private EffortRecordReader openReader;
+    private int openSegment = -1;
+    private int openBlock = -1;
+
+    // Most recently used decoded pages, by page number
+    private final Map<Integer, String[][]> pageCache = new LinkedHashMap<Integer, String[][]>(CACHED_PAGES, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Integer, String[][]> eldest) {
+            return size() > CACHED_PAGES;
+        }
+    };
+
+    /**
+     * Opens a user's effort log and builds its page index. Call this off the event dispatch thread for large logs.
+     *
+     * @param userFile The user's credential file; a user without a log gives an empty table.
+     * @throws IOException If an I/O error occurs.
+     */
+    public EffortLogTableModel(Path userFile) throws IOException {
+        PageIndex index = new PageIndex();
+
+        for (EffortSegments.Segment segment : EffortSegments.listSegments(userFile)) {
+            int segmentNumber = segmentFiles.size();
+            segmentFiles.add(segment.getFile());
+            segmentsCompacted.add(segment.isCompacted());
+
+            if (segment.isCompacted()) {
+                // The block table holds the record count of each block, so nothing is decompressed here
+                int[] blockRecordCounts = EffortSegments.getBlockRecordCounts(segment.getFile());
+                for (int block = 0; block < blockRecordCounts.length; block++) {
+                    for (int skip = 0; skip < blockRecordCounts[block]; skip += PAGE_SIZE) {
+                        index.add(segmentNumber, block, skip);
+                        index.rows += Math.min(PAGE_SIZE, blockRecordCounts[block] - skip);
+                    }
+                }
+                continue;
+            }
+
+            EffortLogWriter.flush(segment.getFile()); // Make sure queued entries are on disk before reading
+
+            // Step over the records, remembering where each page starts; no fields are decoded here
+            try (EffortRecordReader reader = new EffortRecordReader(segment.getFile())) {
+                int segmentCount = 0;
+                while (reader.next()) {
+                    if (segmentCount % PAGE_SIZE == 0) {
+                        index.add(segmentNumber, -1, reader.recordOffset());
+                    }
+                    segmentCount++;
+                    index.rows++;
+                }
+            }
+        }
+
+        rowCount = index.rows;
+        pageSegments = Arrays.copyOf(index.segments, index.pages);
+        pageBlocks = Arrays.copyOf(index.blocks, index.pages);
+        pagePositions = Arrays.copyOf(index.positions, index.pages);
+        pageFirstRows = Arrays.copyOf(index.firstRows, index.pages);
+    }
+
+    /**
+     * The page index while it is being built.
+     */
+    private static class PageIndex {
+        int[] segments = new int[16];
+        int[] blocks = new int[16];
+        long[] positions = new long[16];
+        int[] firstRows = new int[16];
+        int pages = 0;
+        int rows = 0;
+
+        /**
+         * Adds a page starting at the current row.
+         */
+        void add(int segment, int block, long position) {
+            if (pages == segments.length) {
+                segments = Arrays.copyOf(segments, pages * 2);
+                blocks = Arrays.copyOf(blocks, pages * 2);
+                positions = Arrays.copyOf(positions, pages * 2);
+                firstRows = Arrays.copyOf(firstRows, pages * 2);
+            }
+            segments[pages] = segment;
+            blocks[pages] = block;
+            positions[pages] = position;
+            firstRows[pages] = rows;
+            pages++;
+        }
+    }
+
+    @Override
+    public int getRowCount() {
+        return rowCount;
+    }
+
+    @Override
+    public int getColumnCount() {
+        return COLUMN_NAMES.length;
+    }
+
+    @Override
+    public String getColumnName(int column) {
+        return COLUMN_NAMES[column];
+    }
+
+    @Override
+    public Object getValueAt(int row, int column) {
+        // Pages at the end of a segment may be short, so find the page by its first row
+        int pageNumber = Arrays.binarySearch(pageFirstRows, row);
+        if (pageNumber < 0) {
+            pageNumber = -pageNumber - 2;
+        }
+        String[][] page = getPage(pageNumber);
+        return page[row - pageFirstRows[pageNumber]][column];
+    }
+
+    /**
+     * Retrieves a decoded page of rows, decoding it from the log if it is not cached.
+     *
+     * @param pageNumber The page to retrieve.
+     * @return The page's rows.
+     */
+    private String[][] getPage(int pageNumber) {
+        String[][] page = pageCache.get(pageNumber);
+        if (page != null) {
+            return page;
+        }
+
+        int nextFirstRow = pageNumber + 1 < pageFirstRows.length ? pageFirstRows[pageNumber + 1] : rowCount;
+        int rows = nextFirstRow - pageFirstRows[pageNumber];
+        page = new String[rows][];
+        try {
+            EffortRecordReader reader = positionReader(pageNumber);
+            for (int i = 0; i < rows && reader.next(); i++) {
+                page[i] = EffortRecord.formatFields(reader);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+
+        pageCache.put(pageNumber, page);
+        return page;
+    }
+
+    /**
+     * Positions a reader before the first record of a page, opening the page's segment or decompressing its block
+     * if the reader of the previous page was elsewhere; that reader is closed first.
+     *
+     * @param pageNumber The page to read.
+     * @return A reader positioned before the page's first record.
+     * @throws IOException If an I/O error occurs.
+     */
+    private EffortRecordReader positionReader(int pageNumber) throws IOException {
+        int segment = pageSegments[pageNumber];
+        int block = pageBlocks[pageNumber];
+        boolean compacted = segmentsCompacted.get(segment);
+
+        if (openReader == null || openSegment != segment || openBlock != block) {
+            close();
+            openReader = compacted
+                    ? EffortSegments.openBlock(segmentFiles.get(segment), block)
+                    : new EffortRecordReader(segmentFiles.get(segment));
+            openSegment = segment;
+            openBlock = block;
+        }
+
+        if (!compacted) {
+            openReader.seek(pagePositions[pageNumber]);
+            return openReader;
+        }
+
+        // Records in a decompressed block are reached by skipping the ones before the page
+        openReader.seek(0);
+        for (long skipped = 0; skipped < pagePositions[pageNumber] && openReader.next(); skipped++) {
+            // Only the record headers are read
+        }
+        return openReader;
+    }
+
+    /**
+     * Closes the log segment read last, if any. Reading another page opens it again.
+     *
+     * @throws IOException If an I/O error occurs.
+     */
+    @Override
+    public void close() throws IOException {
+        if (openReader != null) {
+            EffortRecordReader reader = openReader;
+            openReader = null;
+            openSegment = -1;
+            openBlock = -1;
+            reader.close();
+        }
+    }
+}
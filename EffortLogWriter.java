@@ -0,0 +1,475 @@
+package EffortLogger;
+
+//
+//File Name: EffortLogWriter.java
+//Creator: Team Th15
+//Last Updated: 10/18/2026
+//Project: CSE360 Team Th15 EFFORTLOGGER V2
+//Description: 	This file contains the append-only writer for encrypted effort logs. Each log file gets one long-lived
+//				writer that keeps its FileChannel open. Entries are queued by EffortLogger.produceLog and written by a
+//				background thread in batches, with one fsync per batch (group commit). The fsync interval and the batch
+//				size can be configured, and callers that need their entries on disk can wait for them with flush().
+//				If a write fails, the writer stops accepting entries and is dropped, so the next use reopens the file.
+//				An entry can carry a callback that the writer thread calls once the entry is synced, with the offset
+//				where the entry ends in the file, so callers can keep derived data in step with the log.
+
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongConsumer;
+
+public class EffortLogWriter {
+
+    // One writer per log file, shared by every caller that logs into that file
+    private static final Map<Path, EffortLogWriter> writers = new ConcurrentHashMap<>();
+
+    // How long the writer waits to collect more entries before writing and syncing a batch, in milliseconds
+    private static volatile long groupCommitMillis = Long.getLong("effortlogger.groupCommitMillis", 20);
+
+    // Maximum number of entries written and synced together
+    private static volatile int maxBatchSize = Integer.getInteger("effortlogger.maxBatchSize", 512);
+
+    // Number of queued entries after which append() blocks until the writer catches up
+    private static final int QUEUE_CAPACITY = 8192;
+
+    // How often an append() waiting for queue space checks whether the writer failed, in milliseconds
+    private static final long FAILURE_CHECK_MILLIS = 100;
+
+    static
+    {
+        // Write out anything still queued when the application exits
+        Runtime.getRuntime().addShutdownHook(new Thread(EffortLogWriter::closeAll, "EffortLogWriter-shutdown"));
+    }
+
+    private final Path logFile;
+    private final FileChannel channel;
+    private final BlockingQueue<Entry> queue = new ArrayBlockingQueue<>(QUEUE_CAPACITY);
+    private final Thread writerThread;
+
+    // Number of entries accepted by append() and number of entries written and synced, guarded by this writer
+    private long appendedCount = 0;
+    private long durableCount = 0;
+
+    // First error hit by the writer thread, reported to every later caller of append() and flush()
+    private volatile IOException failure;
+
+    // Set under this writer's lock, so an append() either sees it or is counted before close() flushes
+    private volatile boolean closed = false;
+
+    /**
+     * A queued entry: its bytes, and the callback to run once it is synced (null if none).
+     */
+    private static final class Entry
+    {
+        final byte[] data;
+        final LongConsumer onWritten;
+
+        Entry(byte[] data, LongConsumer onWritten)
+        {
+            this.data = data;
+            this.onWritten = onWritten;
+        }
+    }
+
+    /**
+     * Opens the log file for appending and starts its writer thread.
+     *
+     * @param logFile The log file to append to.
+     * @throws IOException If the file cannot be opened.
+     */
+    private EffortLogWriter(Path logFile) throws IOException
+    {
+        this.logFile = logFile;
+        Files.createDirectories(logFile.getParent());
+        this.channel = FileChannel.open(logFile, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+
+        writerThread = new Thread(this::writeLoop, "EffortLogWriter-" + logFile.getFileName());
+        writerThread.setDaemon(true);
+        writerThread.start();
+    }
+
+    //--------------------------------------------configuration methods--------------------------------------------------------------
+
+    /**
+     * Sets the group commit policy used by all writers.
+     *
+     * @param groupCommitMillis How long to collect entries before writing and syncing a batch; 0 syncs every batch immediately.
+     * @param maxBatchSize      Maximum number of entries written and synced together.
+     */
+    public static void configure(long groupCommitMillis, int maxBatchSize)
+    {
+        if (groupCommitMillis < 0 || maxBatchSize < 1)
+        {
+            throw new IllegalArgumentException("Invalid group commit settings: " + groupCommitMillis + " ms, batch size " + maxBatchSize);
+        }
+
+        EffortLogWriter.groupCommitMillis = groupCommitMillis;
+        EffortLogWriter.maxBatchSize = maxBatchSize;
+    }
+
+    //--------------------------------------------writer methods--------------------------------------------------------------
+
+    /**
+     * Retrieves the writer for a log file, opening it on first use, or again after the previous writer failed.
+     *
+     * @param logFile The log file to append to.
+     * @return The writer for the log file.
+     * @throws IOException If the file cannot be opened.
+     */
+    public static EffortLogWriter forFile(Path logFile) throws IOException
+    {
+        Path key = logFile.toAbsolutePath().normalize();
+        EffortLogWriter writer = writers.get(key);
+        if (writer != null && writer.failure == null)
+        {
+            return writer;
+        }
+
+        synchronized (writers)
+        {
+            writer = writers.get(key);
+            if (writer == null || writer.failure != null)
+            {
+                writer = new EffortLogWriter(key);
+                writers.put(key, writer);
+            }
+            return writer;
+        }
+    }
+
+    /**
+     * Queues already encrypted data to be appended to the log file.
+     * The call returns once the data is queued; use flush() to wait until it is on disk.
+     *
+     * @param encryptedData The encrypted data to append.
+     * @throws IOException If the writer is closed or was interrupted while waiting for queue space.
+     */
+    public void append(String encryptedData) throws IOException
+    {
+        append(encryptedData.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Queues already encoded bytes to be appended to the log file.
+     *
+     * @param data The bytes to append.
+     * @throws IOException If the writer is closed or failed, or was interrupted while waiting for queue space.
+     */
+    public void append(byte[] data) throws IOException
+    {
+        append(data, null);
+    }
+
+    /**
+     * Queues already encoded bytes to be appended to the log file, with a callback run once they are on disk.
+     * The callback runs on the writer thread, before flush() returns for the entry, and must not wait for
+     * anything that waits for this writer. It is not called if the entry cannot be written.
+     *
+     * @param data      The bytes to append.
+     * @param onWritten Called with the file size just after the entry once it is synced; may be null.
+     * @throws IOException If the writer is closed or failed, or was interrupted while waiting for queue space.
+     */
+    public void append(byte[] data, LongConsumer onWritten) throws IOException
+    {
+        Entry entry = new Entry(data, onWritten);
+
+        synchronized (this)
+        {
+            checkOpen();
+            appendedCount++;
+        }
+
+        try
+        {
+            // A failed writer no longer takes entries, so do not wait for queue space forever.
+            // Closing does not stop the wait: close() flushes every entry counted before it.
+            while (!queue.offer(entry, FAILURE_CHECK_MILLIS, TimeUnit.MILLISECONDS))
+            {
+                checkFailure();
+            }
+        }
+        catch (InterruptedException e)
+        {
+            Thread.currentThread().interrupt();
+            synchronized (this)
+            {
+                appendedCount--;
+                notifyAll();
+            }
+            throw new IOException("Interrupted while queueing log entry for " + logFile, e);
+        }
+
+        // The entry is lost if the writer failed while it was being queued
+        checkFailure();
+    }
+
+    /**
+     * Throws if entries can no longer be appended.
+     *
+     * @throws IOException If the writer failed or is closed.
+     */
+    private void checkOpen() throws IOException
+    {
+        checkFailure();
+        if (closed)
+        {
+            throw new IOException("Log writer is closed: " + logFile);
+        }
+    }
+
+    /**
+     * Throws if the writer thread failed to write or sync the file.
+     *
+     * @throws IOException If the writer failed.
+     */
+    private void checkFailure() throws IOException
+    {
+        if (failure != null)
+        {
+            throw new IOException("Log writer failed: " + logFile, failure);
+        }
+    }
+
+    /**
+     * Waits until every entry appended before this call is written and synced to disk.
+     *
+     * @throws IOException If the writer thread failed to write or sync the file.
+     */
+    public synchronized void flush() throws IOException
+    {
+        long target = appendedCount;
+        while (durableCount < target && failure == null)
+        {
+            try
+            {
+                wait();
+            }
+            catch (InterruptedException e)
+            {
+                Thread.currentThread().interrupt();
+                throw new IOException("Interrupted while flushing " + logFile, e);
+            }
+        }
+
+        if (failure != null)
+        {
+            throw failure;
+        }
+    }
+
+    /**
+     * Flushes the writer of a log file, if one is open. Readers call this before reading the file.
+     *
+     * @param logFile The log file to flush.
+     * @throws IOException If the writer failed to write or sync the file.
+     */
+    public static void flush(Path logFile) throws IOException
+    {
+        EffortLogWriter writer = writers.get(logFile.toAbsolutePath().normalize());
+        if (writer != null)
+        {
+            writer.flush();
+        }
+    }
+
+    /**
+     * Flushes and closes the writer of a log file, if one is open, for example before the file is compacted.
+     * A later append to the file opens a new writer.
+     *
+     * @param logFile The log file to close.
+     * @throws IOException If the remaining entries could not be written.
+     */
+    public static void close(Path logFile) throws IOException
+    {
+        EffortLogWriter writer;
+        synchronized (writers)
+        {
+            writer = writers.remove(logFile.toAbsolutePath().normalize());
+        }
+
+        if (writer != null)
+        {
+            writer.close();
+        }
+    }
+
+    /**
+     * Flushes and closes every open writer.
+     */
+    public static void closeAll()
+    {
+        synchronized (writers)
+        {
+            for (EffortLogWriter writer : writers.values())
+            {
+                try
+                {
+                    writer.close();
+                }
+                catch (IOException e)
+                {
+                    e.printStackTrace();
+                }
+            }
+            writers.clear();
+        }
+    }
+
+    /**
+     * Flushes the queued entries, stops the writer thread, and closes the file.
+     *
+     * @throws IOException If the remaining entries could not be written.
+     */
+    private void close() throws IOException
+    {
+        // Refuse new entries first; entries already counted are still written by the final flush
+        synchronized (this)
+        {
+            closed = true;
+        }
+
+        try
+        {
+            flush();
+        }
+        finally
+        {
+            writerThread.interrupt();
+            channel.close();
+        }
+    }
+
+    //--------------------------------------------background methods--------------------------------------------------------------
+
+    /**
+     * Body of the writer thread: collects entries into batches, writes each batch with one gathering write, and syncs it.
+     * The thread runs until close() interrupts it after the final flush, or until a write fails.
+     */
+    private void writeLoop()
+    {
+        List<Entry> batch = new ArrayList<>();
+
+        while (true)
+        {
+            try
+            {
+                // Wait for the first entry of the next batch
+                batch.add(queue.take());
+
+                // Collect more entries until the batch is full or the group commit interval has passed
+                long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(groupCommitMillis);
+                int batchLimit = maxBatchSize;
+                while (batch.size() < batchLimit)
+                {
+                    queue.drainTo(batch, batchLimit - batch.size());
+                    long remaining = deadline - System.nanoTime();
+                    if (batch.size() >= batchLimit || remaining <= 0)
+                    {
+                        break;
+                    }
+
+                    Entry next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+                    if (next == null)
+                    {
+                        break;
+                    }
+                    batch.add(next);
+                }
+
+                writeBatch(batch);
+            }
+            catch (InterruptedException e)
+            {
+                // Interrupted by close(); anything left was already flushed
+                return;
+            }
+            catch (IOException e)
+            {
+                e.printStackTrace();
+                synchronized (this)
+                {
+                    failure = e;
+                    notifyAll();
+                }
+
+                // Drop the failed writer, so the next forFile() opens the file again
+                writers.remove(logFile, this);
+                queue.clear();
+                try
+                {
+                    channel.close();
+                }
+                catch (IOException closeError)
+                {
+                    e.addSuppressed(closeError);
+                }
+                return;
+            }
+            finally
+            {
+                batch.clear();
+            }
+        }
+    }
+
+    /**
+     * Writes a batch of entries to the log file, syncs it to disk, and runs the entries' callbacks.
+     *
+     * @param batch The entries to write.
+     * @throws IOException If an I/O error occurs.
+     */
+    private void writeBatch(List<Entry> batch) throws IOException
+    {
+        ByteBuffer[] buffers = new ByteBuffer[batch.size()];
+        long totalBytes = 0;
+        for (int i = 0; i < buffers.length; i++)
+        {
+            buffers[i] = ByteBuffer.wrap(batch.get(i).data);
+            totalBytes += buffers[i].remaining();
+        }
+
+        // A gathering write may be partial, so keep writing until the whole batch is out
+        long written = 0;
+        while (written < totalBytes)
+        {
+            written += channel.write(buffers);
+        }
+
+        // One sync for the whole batch
+        channel.force(false);
+
+        // In append mode the position is now the end of the file, so each entry ends where the next one starts
+        long entryStart = channel.position() - totalBytes;
+        for (Entry entry : batch)
+        {
+            entryStart += entry.data.length;
+            if (entry.onWritten != null)
+            {
+                try
+                {
+                    entry.onWritten.accept(entryStart);
+                }
+                catch (RuntimeException e)
+                {
+                    e.printStackTrace(); // A failing callback must not stop the log
+                }
+            }
+        }
+
+        synchronized (this)
+        {
+            durableCount += batch.size();
+            notifyAll();
+        }
+    }
+}
@@ -10,134 +10,208 @@ package EffortLogger;
 //             in an encrypted file. The class also includes methods for handling test user data and setting or retrieving 
 //             user file paths.
 
-import java.text.SimpleDateFormat;
-import java.util.Date;
-import java.io.File;
 import java.io.IOException;
 import java.nio.file.*;
 
 public class EffortLogger 
 {
     // Variables to track various aspects of logged efforts
-    int counter = 0; // Counter for the number of logged efforts
-    long startTime; // Start time of an effort in milliseconds
-    long endTime; // End time of an effort in milliseconds
+    int counter = 0; // Sequence number of the current effort, unique per user
+    long startTime; // Start time of an effort in milliseconds since the epoch, the wall-clock anchor of the effort
+    long endTime; // End time of an effort in milliseconds, the anchor plus the measured duration
     long deltaTime; // Duration of the effort in milliseconds
+    long startNanos; // Monotonic clock reading when the effort started
+    long durationNanos; // Duration of the effort in nanoseconds, unaffected by wall-clock changes
     String formattedStartTime; // Start time formatted as HH:mm:ss
     String formattedEndTime; // End time formatted as HH:mm:ss
     String formattedDeltaTime; // Duration formatted as HH:mm:ss
     String lifeCycle; // Life cycle phase associated with the effort
     String effortCategory; // Category of the effort
+    String project; // Project the effort was spent on
+    String deliverable; // Deliverable the effort was spent on
     String formattedDate; // Current date formatted as MM/dd/yyyy
     private static Path userFile; // Path to the file where user data is stored
+    private final Path sessionUserFile; // User file this instance logs into, or null to use the shared user file
+    private boolean clockRunning; // Whether startClock succeeded and the effort has not been logged yet
+    // The clock methods are synchronized, so one logger, e.g. that of a SessionManager session, can be shared by threads
+
+    /**
+     * Creates an effort logger that logs into the shared user file set with setUserInfo.
+     */
+    public EffortLogger() 
+    {
+        this(null);
+    }
+
+    /**
+     * Creates an effort logger bound to one user's file, so several users can log efforts side by side.
+     * For several open activities per user, use EffortSessionRegistry instead.
+     *
+     * @param sessionUserFile The user information file this logger logs into.
+     */
+    public EffortLogger(Path sessionUserFile) 
+    {
+        this.sessionUserFile = sessionUserFile;
+    }
+
+    /**
+     * Starts the clock for tracking effort without a project or deliverable.
+     *
+     * @param selectedLifeCycle The life cycle phase associated with the effort.
+     * @param selectedEffortCategory The category of the effort.
+     * @throws IOException If the user's sequence file cannot be written.
+     */
+    public void startClock(String selectedLifeCycle, String selectedEffortCategory) throws IOException 
+    {
+        startClock("", selectedLifeCycle, selectedEffortCategory, "");
+    }
 
     /**
      * Starts the clock for tracking effort, recording the start time and initializing related data.
      *
+     * @param selectedProject The project the effort is spent on.
      * @param selectedLifeCycle The life cycle phase associated with the effort.
      * @param selectedEffortCategory The category of the effort.
+     * @param selectedDeliverable The deliverable the effort is spent on.
+     * @throws IOException If the user's sequence file cannot be written; the clock is not started then.
      */
-    public void startClock(String selectedLifeCycle, String selectedEffortCategory) 
+    public synchronized void startClock(String selectedProject, String selectedLifeCycle, String selectedEffortCategory, String selectedDeliverable) throws IOException 
     {
+        // Take the next number of the user's persistent sequence, so numbers continue across launches
+        counter = EffortSequence.next(resolveUserFile());
+
         startTime = System.currentTimeMillis(); // Capture current time as start time
-        Date currentDate = new Date(startTime); // Convert milliseconds to Date
-        SimpleDateFormat sdf = new SimpleDateFormat("HH:mm:ss");
-        formattedStartTime = sdf.format(currentDate); // Format start time
+        startNanos = System.nanoTime(); // Capture the monotonic clock used to measure the duration
+        formattedStartTime = TimeFormat.formatTime(startTime); // Format start time
         lifeCycle = selectedLifeCycle; // Set life cycle phase
         effortCategory = selectedEffortCategory; // Set effort category
-        formattedDate = getDate(); // Get current date in formatted form
-        counter++; // Increment effort count
+        project = selectedProject; // Set project
+        deliverable = selectedDeliverable; // Set deliverable
+        formattedDate = TimeFormat.formatDate(startTime); // Format the date of the start time
+        clockRunning = true;
     }
 
     /**
      * Ends the clock for tracking effort, calculating the duration and logging the effort.
+     *
+     * @throws IllegalStateException If the clock is not running, e.g. because starting it failed.
      */
-    public void endClock() 
+    public synchronized void endClock() 
     {
-        endTime = System.currentTimeMillis(); // Capture current time as end time
-        Date currentDate = new Date(endTime); // Convert milliseconds to Date
-        SimpleDateFormat sdf = new SimpleDateFormat("HH:mm:ss");
-        formattedEndTime = sdf.format(currentDate); // Format end time
-
-        // Calculate duration of the effort
-        deltaTime = endTime - startTime;
-        long seconds = deltaTime / 1000;
-        long minutes = seconds / 60;
-        long hours = minutes / 60;
-        seconds %= 60;
-        minutes %= 60;
-        formattedDeltaTime = String.format("%02d:%02d:%02d", hours, minutes, seconds); // Format duration
+        if (!clockRunning) 
+        {
+            throw new IllegalStateException("The effort clock was not started");
+        }
+        clockRunning = false;
+
+        // Measure the duration on the monotonic clock, so clock adjustments and DST changes cannot distort it
+        durationNanos = System.nanoTime() - startNanos;
+        deltaTime = durationNanos / 1_000_000;
+
+        endTime = startTime + deltaTime; // Derive the end time from the start anchor
+        formattedEndTime = TimeFormat.formatTime(endTime); // Format end time
+        formattedDeltaTime = TimeFormat.formatDuration(deltaTime); // Format duration
 
         produceLog(); // Log the effort details
     }
 
     /**
-     * Retrieves the current date formatted as MM/dd/yyyy.
+     * Logs the effort details into the user's encrypted log file and adds them to the user's effort totals.
+     */
+    public synchronized void produceLog() 
+    {
+        try 
+        {
+            writeLog();
+        }
+
+        catch (IOException e) 
+        {
+            e.printStackTrace(); // Handle any IO exceptions
+        }
+    }
+
+    /**
+     * Logs an effort that already took place, e.g. one imported from a file, instead of timing it with the clock.
      *
-     * @return Formatted date string.
+     * @param startMillis The start time in milliseconds since the epoch.
+     * @param endMillis The end time in milliseconds since the epoch.
+     * @param selectedProject The project the effort was spent on.
+     * @param selectedLifeCycle The life cycle phase associated with the effort.
+     * @param selectedEffortCategory The category of the effort.
+     * @param selectedDeliverable The deliverable the effort was spent on.
+     * @throws IOException If the user's sequence file or log file cannot be written.
      */
-    private String getDate() 
+    public synchronized void logEffort(long startMillis, long endMillis, String selectedProject, String selectedLifeCycle, String selectedEffortCategory, String selectedDeliverable) throws IOException 
     {
-        SimpleDateFormat sdf = new SimpleDateFormat("MM/dd/yyyy");
-        Date currentDate = new Date();
-        return sdf.format(currentDate); // Format and return the date
+        startTime = startMillis; // Set the recorded start and end times
+        endTime = endMillis;
+        deltaTime = endMillis - startMillis; // Compute the duration
+        durationNanos = deltaTime * 1_000_000;
+        formattedStartTime = TimeFormat.formatTime(startTime); // Format the times
+        formattedEndTime = TimeFormat.formatTime(endTime);
+        formattedDeltaTime = TimeFormat.formatDuration(deltaTime);
+        formattedDate = TimeFormat.formatDate(startTime);
+        project = selectedProject; // Set the effort details
+        lifeCycle = selectedLifeCycle;
+        effortCategory = selectedEffortCategory;
+        deliverable = selectedDeliverable;
+
+        counter = EffortSequence.next(resolveUserFile()); // Take the next number of the user's persistent sequence
+        writeLog(); // Log the effort details
     }
 
     /**
-     * Logs the effort details into a file and encrypts the file.
+     * Encodes the current effort as a record and queues it for the user's log file.
+     *
+     * @throws IOException If the user's log file cannot be opened.
      */
-    public void produceLog() 
+    private void writeLog() throws IOException 
     {
-        String formattedCounter = Integer.toString(counter); // Convert counter to a string
+        // Encode the effort as a structured record; its text fields are encrypted
+        byte[] record = EffortRecord.encodeEffort(counter, startTime, endTime, durationNanos, lifeCycle, effortCategory, project, deliverable);
 
-        // Encrypt and prepare data for storage
-        String encryptedData = EncryptDecrypt.encryptString(formattedCounter + formattedDate + formattedStartTime + formattedEndTime + formattedDeltaTime + lifeCycle + effortCategory + "\n");
+        // Queue the record for the user's log file, kept apart from the credentials, and update the totals
+        EffortAggregates.logEffort(resolveUserFile(), record, startTime, durationNanos, project, lifeCycle, effortCategory, deliverable);
+    }
 
-        try 
+    /**
+     * Retrieves the user file efforts are logged for, creating the TestUser file if no user is set.
+     *
+     * @return Path to the user information file.
+     * @throws IOException If an I/O error occurs.
+     */
+    private Path resolveUserFile() throws IOException 
+    {
+        if (sessionUserFile != null) 
         {
-            // Check if user file exists; if not, create a temporary file for the TestUser
-            if (userFile == null) 
-            {
-                File tempFile = createTempUserFile("TestUser");
-
-                // Encrypt the file and store it in the "user_info_encrypted" directory
-                EncryptDecrypt.encryptFile(tempFile.getAbsolutePath(), "user_info_encrypted", true);
-
-                // Construct the path for the encrypted file
-                String encryptedFileName = "TestUser_encrypted.txt";
-                Path encryptedFilePath = Paths.get(System.getProperty("user.dir"), "user_info_encrypted", encryptedFileName);
-                userFile = encryptedFilePath;
-
-                tempFile.delete(); // Delete the temporary file
-            }
-
-            // Store the encrypted data in the user file
-            EncryptDecrypt.storeEncryptedFile(encryptedData, userFile, "user_info_encrypted", false);
+            return sessionUserFile;
         }
 
-        catch (IOException e) 
+        // Check if user file exists; if not, use the TestUser account, creating it if needed
+        if (userFile == null) 
         {
-            e.printStackTrace(); // Handle any IO exceptions
+            // Construct the path for the encrypted file
+            String encryptedFileName = "TestUser_encrypted.txt";
+            Path encryptedFilePath = Paths.get(System.getProperty("user.dir"), "user_info_encrypted", encryptedFileName);
+            if (!Files.exists(encryptedFilePath)) 
+            {
+                createTestUser(encryptedFilePath);
+            }
+            userFile = encryptedFilePath;
         }
+        return userFile;
     }
 
     /**
-     * Creates a temporary file for a test user with predefined content.
+     * Creates the TestUser account, whose credential header holds the hash of its password.
      *
-     * @param username The username for the test user.
-     * @return The created temporary file.
+     * @param testUserFile The credential file of the test user.
      * @throws IOException If an I/O error occurs.
      */
-    public static File createTempUserFile(String username) throws IOException 
+    public static void createTestUser(Path testUserFile) throws IOException 
     {
-        String fileName = username + ".txt"; // Construct file name
-        File tempFile = new File(System.getProperty("user.dir"), fileName);
-
-        // Define the content for the test user
-        String content = "Name: test user\nUsername: user\nPassword: password\n";
-        Files.writeString(tempFile.toPath(), content); // Write content to the file
-
-        return tempFile; // Return the created file
+        UserStorage.createUserFile(testUserFile, "test user", "user", "password");
     }
 
     /**
@@ -159,4 +233,15 @@ public class EffortLogger
     {
         return userFile; // Return the user file path
     }
+
+    /**
+     * Retrieves the path of the undated effort log file that belongs to the current user.
+     * New efforts are logged into the user's weekly segments instead; see EffortSegments.
+     *
+     * @return Path to the user's undated effort log file, or null if no user is set.
+     */
+    public static Path getUserLogFile() 
+    {
+        return userFile == null ? null : UserStorage.getLogFile(userFile); // Derive the log file from the user file
+    }
 }
\ No newline at end of file
@@ -0,0 +1,411 @@
+package EffortLogger;
+
+//
+//File Name: EffortLoggerCli.java
+//Creator: Team Th15
+//Last Updated: 10/18/2026
+//Project: CSE360 Team Th15 EFFORTLOGGER V2
+//Description: 	This file contains the command-line entry point of EffortLogger for scripts, CI jobs, and servers without
+//				a display. It logs efforts from CSV, searches the Planning Poker archive, and exports the weekly effort
+//				totals, using the same classes as the desktop application. It never touches a Swing or AWT class (not
+//				even AsyncIOService), so it starts quickly and runs on headless machines.
+//
+//				Usage:
+//				  EffortLoggerCli log --user NAME [--file efforts.csv]      CSV from the file, or standard input
+//				  EffortLoggerCli search TERM [--consensus]
+//				  EffortLoggerCli aggregates --user NAME [--week YYYY-MM-DD] [--dimension project|lifeCycle|effortCategory|deliverable]
+//				The password is taken from --password, the EFFORTLOGGER_PASSWORD environment variable, or the console.
+
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeParseException;
+import java.util.*;
+
+public class EffortLoggerCli {
+
+    // Exit codes
+    private static final int EXIT_OK = 0;
+    private static final int EXIT_FAILED = 1;
+    private static final int EXIT_USAGE = 2;
+
+    // Columns of an effort in the CSV input, in order
+    private static final String CSV_COLUMNS = "start,end,project,lifeCycle,effortCategory,deliverable";
+
+    // Dimensions of the weekly totals, in export order
+    private static final String[] DIMENSIONS = {EffortAggregates.PROJECT, EffortAggregates.LIFE_CYCLE,
+            EffortAggregates.EFFORT_CATEGORY, EffortAggregates.DELIVERABLE};
+
+    /**
+     * Runs one command and exits with its status.
+     *
+     * @param args The command and its options.
+     */
+    public static void main(String[] args)
+    {
+        int status;
+        try
+        {
+            status = run(args, System.out, System.err);
+        }
+        catch (IOException e)
+        {
+            System.err.println("Error: " + e.getMessage());
+            status = EXIT_FAILED;
+        }
+        System.exit(status);
+    }
+
+    /**
+     * Runs one command.
+     *
+     * @param args The command and its options.
+     * @param out  Receives the command's output.
+     * @param err  Receives error messages.
+     * @return The exit code.
+     * @throws IOException If an I/O error occurs.
+     */
+    static int run(String[] args, PrintStream out, PrintStream err) throws IOException
+    {
+        if (args.length == 0)
+        {
+            err.println(usage());
+            return EXIT_USAGE;
+        }
+
+        List<String> arguments = new ArrayList<>();
+        Map<String, String> options = new HashMap<>();
+        for (int i = 1; i < args.length; i++)
+        {
+            if (args[i].equals("--consensus"))
+            {
+                options.put("consensus", "true");
+            }
+            else if (args[i].startsWith("--") && i + 1 < args.length)
+            {
+                options.put(args[i].substring(2), args[++i]);
+            }
+            else
+            {
+                arguments.add(args[i]);
+            }
+        }
+
+        switch (args[0])
+        {
+            case "log":
+                return logEfforts(options, out, err);
+            case "search":
+                return search(arguments, options, out, err);
+            case "aggregates":
+                return exportAggregates(options, out, err);
+            case "help":
+                out.println(usage());
+                return EXIT_OK;
+            default:
+                err.println("Unknown command: " + args[0]);
+                err.println(usage());
+                return EXIT_USAGE;
+        }
+    }
+
+    //--------------------------------------------command methods--------------------------------------------------------------
+
+    /**
+     * Logs every effort of the CSV input for the logged-in user. Lines that are blank, start with '#', or are the
+     * header line are skipped; a line that cannot be parsed is reported and stops the import before it is logged.
+     */
+    private static int logEfforts(Map<String, String> options, PrintStream out, PrintStream err) throws IOException
+    {
+        Path userFile = login(options, err);
+        if (userFile == null)
+        {
+            return EXIT_FAILED;
+        }
+
+        EffortLogger effortLogger = new EffortLogger(userFile);
+        int logged = 0;
+        int lineNumber = 0;
+        try (BufferedReader reader = openInput(options.get("file")))
+        {
+            String line;
+            while ((line = reader.readLine()) != null)
+            {
+                lineNumber++;
+                if (line.isBlank() || line.startsWith("#") || line.replace(" ", "").equalsIgnoreCase(CSV_COLUMNS))
+                {
+                    continue;
+                }
+
+                List<String> fields = parseCsvLine(line);
+                if (fields.size() != 6)
+                {
+                    err.println("Line " + lineNumber + ": expected 6 columns (" + CSV_COLUMNS + "), found " + fields.size());
+                    return EXIT_FAILED;
+                }
+
+                long startMillis;
+                long endMillis;
+                try
+                {
+                    startMillis = parseTime(fields.get(0));
+                    endMillis = parseTime(fields.get(1));
+                }
+                catch (DateTimeParseException | NumberFormatException e)
+                {
+                    err.println("Line " + lineNumber + ": times must be like 2026-10-18T09:30 or milliseconds since the epoch");
+                    return EXIT_FAILED;
+                }
+                if (endMillis < startMillis)
+                {
+                    err.println("Line " + lineNumber + ": the effort ends before it starts");
+                    return EXIT_FAILED;
+                }
+
+                effortLogger.logEffort(startMillis, endMillis, fields.get(2), fields.get(3), fields.get(4), fields.get(5));
+                logged++;
+            }
+        }
+        finally
+        {
+            // Make the efforts durable before the process exits
+            EffortLogWriter.closeAll();
+            EffortAggregates.saveAll();
+        }
+
+        out.println("Logged " + logged + " effort(s).");
+        return EXIT_OK;
+    }
+
+    /**
+     * Searches the Planning Poker archive and prints each matching item with its estimate statistics.
+     */
+    private static int search(List<String> arguments, Map<String, String> options, PrintStream out, PrintStream err) throws IOException
+    {
+        if (arguments.isEmpty())
+        {
+            err.println("search needs a search term");
+            return EXIT_USAGE;
+        }
+
+        String searchTerm = String.join(" ", arguments);
+        List<PlanningPokerSearchResult> results = options.containsKey("consensus")
+                ? PlanningPokerIndex.search(searchTerm, VoteAccumulator::isConsensus)
+                : PlanningPokerIndex.search(searchTerm);
+
+        out.println("item\tvotes\taverage\tmedian\tmode\tconsensus");
+        for (PlanningPokerSearchResult result : results)
+        {
+            VoteAccumulator votes = result.getVotes();
+            if (votes == null)
+            {
+                out.println(result.getName() + "\t0\t\t\t\t");
+            }
+            else
+            {
+                out.println(String.format("%s\t%d\t%.2f\t%.1f\t%d\t%s", result.getName(), votes.getVoteCount(),
+                        votes.getMean(), votes.getMedian(), votes.getMode(), votes.isConsensus() ? "Yes" : "No"));
+            }
+        }
+        return EXIT_OK;
+    }
+
+    /**
+     * Prints the logged-in user's totals for one week as CSV, for one dimension or all of them.
+     */
+    private static int exportAggregates(Map<String, String> options, PrintStream out, PrintStream err) throws IOException
+    {
+        LocalDate weekStart;
+        try
+        {
+            weekStart = options.containsKey("week")
+                    ? EffortAggregates.weekOf(LocalDate.parse(options.get("week")).atStartOfDay(ZoneId.systemDefault()).toInstant().toEpochMilli())
+                    : EffortAggregates.weekOf(System.currentTimeMillis());
+        }
+        catch (DateTimeParseException e)
+        {
+            err.println("--week must be a date like 2026-10-12");
+            return EXIT_USAGE;
+        }
+
+        String[] dimensions = DIMENSIONS;
+        if (options.containsKey("dimension"))
+        {
+            if (!Arrays.asList(DIMENSIONS).contains(options.get("dimension")))
+            {
+                err.println("--dimension must be one of " + String.join(", ", DIMENSIONS));
+                return EXIT_USAGE;
+            }
+            dimensions = new String[]{options.get("dimension")};
+        }
+
+        Path userFile = login(options, err);
+        if (userFile == null)
+        {
+            return EXIT_FAILED;
+        }
+
+        out.println("week,dimension,value,efforts,totalHours,meanMinutes,p50Minutes,p90Minutes");
+        for (String dimension : dimensions)
+        {
+            Map<String, EffortAggregates.Rollup> rollups = new TreeMap<>(EffortAggregates.getRollups(userFile, weekStart, dimension));
+            for (Map.Entry<String, EffortAggregates.Rollup> entry : rollups.entrySet())
+            {
+                EffortAggregates.Rollup rollup = entry.getValue();
+                out.println(String.format(Locale.ROOT, "%s,%s,%s,%d,%.2f,%.1f,%.1f,%.1f", weekStart, dimension,
+                        csvField(entry.getKey()), rollup.getCount(), rollup.getTotalHours(), rollup.getMeanNanos() / 60e9,
+                        rollup.getPercentileMillis(50) / 60e3, rollup.getPercentileMillis(90) / 60e3));
+            }
+        }
+        return EXIT_OK;
+    }
+
+    //--------------------------------------------helper methods--------------------------------------------------------------
+
+    /**
+     * Verifies the user given in the options.
+     *
+     * @return The user's file, or null if the user is missing or the credentials do not match.
+     */
+    private static Path login(Map<String, String> options, PrintStream err) throws IOException
+    {
+        String userName = options.get("user");
+        if (userName == null)
+        {
+            err.println("--user is required");
+            return null;
+        }
+
+        String password = options.get("password");
+        if (password == null)
+        {
+            password = System.getenv("EFFORTLOGGER_PASSWORD");
+        }
+        if (password == null && System.console() != null)
+        {
+            password = new String(System.console().readPassword("Password for %s: ", userName));
+        }
+        if (password == null)
+        {
+            err.println("No password: use --password or set EFFORTLOGGER_PASSWORD");
+            return null;
+        }
+
+        Path userFile = EncryptDecrypt.searchUserFiles(userName, password);
+        if (userFile == null)
+        {
+            err.println("Invalid username or password");
+        }
+        return userFile;
+    }
+
+    /**
+     * Opens the CSV input: the given file, or standard input if none is given or the name is "-".
+     */
+    private static BufferedReader openInput(String fileName) throws IOException
+    {
+        if (fileName == null || fileName.equals("-"))
+        {
+            return new BufferedReader(new InputStreamReader(System.in, StandardCharsets.UTF_8));
+        }
+        return Files.newBufferedReader(Paths.get(fileName), StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Parses a time as milliseconds since the epoch or as a local date and time in the system time zone.
+     *
+     * @param text A time like "1792310400000", "2026-10-18T09:30", or "2026-10-18 09:30:00".
+     * @return The time in milliseconds since the epoch.
+     */
+    private static long parseTime(String text)
+    {
+        String trimmed = text.trim();
+        if (!trimmed.isEmpty() && trimmed.chars().allMatch(Character::isDigit))
+        {
+            return Long.parseLong(trimmed);
+        }
+        return LocalDateTime.parse(trimmed.replace(' ', 'T')).atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+
+    /**
+     * Splits a CSV line into its fields. Fields may be quoted with double quotes, with "" standing for a quote.
+     *
+     * @param line The line.
+     * @return The fields, without quotes and with surrounding spaces of unquoted fields removed.
+     */
+    static List<String> parseCsvLine(String line)
+    {
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        boolean wasQuoted = false;
+        for (int i = 0; i < line.length(); i++)
+        {
+            char c = line.charAt(i);
+            if (quoted)
+            {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"')
+                {
+                    field.append('"');
+                    i++;
+                }
+                else if (c == '"')
+                {
+                    quoted = false;
+                }
+                else
+                {
+                    field.append(c);
+                }
+            }
+            else if (c == '"')
+            {
+                quoted = true;
+                wasQuoted = true;
+            }
+            else if (c == ',')
+            {
+                fields.add(wasQuoted ? field.toString() : field.toString().trim());
+                field.setLength(0);
+                wasQuoted = false;
+            }
+            else
+            {
+                field.append(c);
+            }
+        }
+        fields.add(wasQuoted ? field.toString() : field.toString().trim());
+        return fields;
+    }
+
+    /**
+     * Quotes a CSV field if it contains a comma, quote, or line break.
+     */
+    private static String csvField(String value)
+    {
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0)
+        {
+            return value;
+        }
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+
+    /**
+     * @return The usage text.
+     */
+    private static String usage()
+    {
+        return "Usage:\n"
+                + "  EffortLoggerCli log --user NAME [--file efforts.csv]   (CSV columns: " + CSV_COLUMNS + ")\n"
+                + "  EffortLoggerCli search TERM [--consensus]\n"
+                + "  EffortLoggerCli aggregates --user NAME [--week YYYY-MM-DD] [--dimension " + String.join("|", DIMENSIONS) + "]\n"
+                + "The password is read from --password, EFFORTLOGGER_PASSWORD, or the console.";
+    }
+}
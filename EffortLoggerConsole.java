@@ -12,8 +12,9 @@ import javax.swing.*;
 import java.awt.*;
 import java.awt.event.ActionEvent;
 import java.awt.event.ActionListener;
+import java.awt.event.WindowAdapter;
+import java.awt.event.WindowEvent;
 import java.nio.file.*;
-import java.io.File;
 import java.io.IOException;
 
 
@@ -43,7 +44,16 @@ public class EffortLoggerConsole {
 
     // Instances of helper classes for additional functionalities
     private static EffortLogger effortLogger = new EffortLogger(); // Instance for logging efforts
-    private static PlanningPoker planningPoker = new PlanningPoker(); // Instance for planning poker functionality
+    private static PlanningPoker planningPoker; // Planning poker window, created when Planning Poker is started
+    private static EffortLoggerHelp helpWindow; // Help window, created when Help is first pressed
+
+    // Classes of the windows opened after login, loaded in the background once the login panel is painted.
+    // They are loaded but not initialized, so no static initializer (such as EffortAggregates starting its saver
+    // and compactor threads) runs before the user logs in.
+    private static final String[] WARM_UP_CLASSES = {
+            "EffortLogger.PlanningPoker", "EffortLogger.EffortLoggerHelp", "EffortLogger.EffortLogTableModel",
+            "EffortLogger.EffortAggregates", "javax.swing.JTable", "javax.swing.JComboBox", "javax.swing.JTextArea",
+            "javax.swing.JScrollPane", "javax.swing.JDialog", "javax.swing.JOptionPane"};
 
     /**
      * The main method to start the application.
@@ -52,6 +62,8 @@ public class EffortLoggerConsole {
      * @throws IOException If an I/O error occurs.
      */
     public static void main(String[] args) throws IOException {
+        StartupTrace.mark("main");
+
         // Ensures the GUI is created in the Event Dispatch Thread for thread safety.
         SwingUtilities.invokeLater(() -> createAndShowGUI());
     }
@@ -60,6 +72,7 @@ public class EffortLoggerConsole {
      * Initializes and displays the main GUI of the application.
      */
     private static void createAndShowGUI() {
+        StartupTrace.mark("event dispatch thread started");
         frame = new JFrame("Effort Logger Console"); // Initialize the main application window
         frame.setDefaultCloseOperation(JFrame.EXIT_ON_CLOSE); // Set default close operation
         frame.setSize(400, 300); // Set the initial size of the frame
@@ -67,7 +80,40 @@ public class EffortLoggerConsole {
 
         createLoginPanel(); // Create the login panel
         frame.add(loginPanel); // Add the login panel to the frame
+
+        // Once the window is open, the login panel's first paint is already queued; run after it
+        frame.addWindowListener(new WindowAdapter() {
+            @Override
+            public void windowOpened(WindowEvent e) {
+                SwingUtilities.invokeLater(() -> {
+                    StartupTrace.finish("login panel painted");
+                    warmUp();
+                });
+            }
+        });
         frame.setVisible(true); // Make the frame visible
+        StartupTrace.mark("login frame shown");
+    }
+
+    /**
+     * Prepares what is needed after login on a background thread while the user types their credentials:
+     * loads the classes of the later windows and builds the estimate suggestion index.
+     */
+    private static void warmUp() {
+        Thread warmUpThread = new Thread(() -> {
+            for (String className : WARM_UP_CLASSES) {
+                try {
+                    Class.forName(className, false, EffortLoggerConsole.class.getClassLoader());
+                } catch (ClassNotFoundException e) {
+                    e.printStackTrace();
+                }
+            }
+            EstimateSuggester.preload();
+            StartupTrace.mark("warm-up finished");
+        }, "EffortLogger-warmup");
+        warmUpThread.setDaemon(true);
+        warmUpThread.setPriority(Thread.MIN_PRIORITY); // Never compete with the event dispatch thread
+        warmUpThread.start();
     }
 
     /**
@@ -130,15 +176,15 @@ public class EffortLoggerConsole {
 
     /**
      * Performs user login when the login button is pressed.
-     * Validates the entered username and password.
+     * Validates the entered username and password on the I/O thread.
      */
     private static void performLogin() {
         String username = usernameField.getText(); // Get entered username
         String password = new String(passwordField.getPassword()); // Get entered password
 
-        try {
-            // Check if the username and password are valid
-            if (isValidLogin(username, password)) {
+        // Check if the username and password are valid without blocking the UI
+        AsyncIOService.run(frame, "Logging in...", () -> isValidLogin(username, password), valid -> {
+            if (valid) {
                 frame.remove(loginPanel); // Remove the login panel from the frame
                 createMainPanel(); // Create and display the main panel
                 frame.setSize(1200, 800); // Resize the frame after login
@@ -148,9 +194,7 @@ public class EffortLoggerConsole {
                 JOptionPane.showMessageDialog(null, "Invalid username or password", "Error", JOptionPane.ERROR_MESSAGE);
                 // Additional error handling can be added here
             }
-        } catch(Exception e) {
-            e.printStackTrace(); // Print stack trace in case of exception
-        }
+        }, error -> error.printStackTrace()); // Print stack trace in case of exception
     }
 
     /**
@@ -162,9 +206,6 @@ public class EffortLoggerConsole {
      * @throws IOException If an I/O error occurs during file operations
      */
     private static boolean isValidLogin(String username, String password) throws IOException {
-        // Search for user files based on the provided credentials
-        Path validUser = EncryptDecrypt.searchUserFiles(username, password);
-
         // Construct the path for the directory where user information is stored
         Path encryptedDirPath = Paths.get(System.getProperty("user.dir"), "user_info_encrypted");
 
@@ -173,26 +214,18 @@ public class EffortLoggerConsole {
             Files.createDirectories(encryptedDirPath);
         }
 
+        // Create the default test account the first time its username is used; it is then checked like any other
+        Path testUserPath = encryptedDirPath.resolve("TestUser_encrypted.txt");
+        if (username.equals("user") && !Files.exists(testUserPath)) {
+            EffortLogger.createTestUser(testUserPath);
+        }
+
+        // Search for user files based on the provided credentials
+        Path validUser = EncryptDecrypt.searchUserFiles(username, password);
+
         // Check if a valid user file is found
         if (validUser == null) {
-            // Handle default login credentials for testing purposes
-            if (username.equals("user") && password.equals("password")) {
-                Path testUserPath = encryptedDirPath.resolve("TestUser_encrypted.txt");
-                File testUserFile = testUserPath.toFile();
-
-                // Create and encrypt a temporary file if the test user file doesn't exist
-                if (!testUserFile.exists()) {
-                    File tempFile = EffortLogger.createTempUserFile("TestUser");
-                    EncryptDecrypt.encryptFile(tempFile.getAbsolutePath(), encryptedDirPath.toString(), true);
-                    tempFile.delete();
-                }
-
-                // Set user information in the EffortLogger
-                EffortLogger.setUserInfo(testUserPath);
-                return true;
-            } else {
-                return false;
-            }
+            return false;
         } else {
             // Set user information if the user is found in the encrypted files
             EffortLogger.setUserInfo(validUser);
@@ -234,33 +267,45 @@ public class EffortLoggerConsole {
     }
 
     /**
-     * Displays the user's data in a dialog box.
+     * Displays the user's effort log in a table within a dialog box.
+     * The log's page index is built on the I/O thread; rows are decrypted only when they scroll into view.
      */
     private static void viewUserData() {
         if (EffortLogger.getUserFile() != null) {
-            try {
-                // Read encrypted data from the user file
-                String encryptedData = Files.readString(EffortLogger.getUserFile());
-                // Decrypt the data
-                String decryptedData = EncryptDecrypt.decryptString(encryptedData);
-
-                // Display the decrypted data in a text area within a scroll pane
-                JTextArea textArea = new JTextArea(decryptedData);
-                textArea.setWrapStyleWord(true);
-                textArea.setLineWrap(true);
-                textArea.setEditable(false);
-                JScrollPane scrollPane = new JScrollPane(textArea);
+            AsyncIOService.run(frame, "Loading user data...", () -> openUserData(), tableModel -> {
+                // Display the effort log in a table within a scroll pane
+                JTable table = new JTable(tableModel);
+                table.setFillsViewportHeight(true);
+                JScrollPane scrollPane = new JScrollPane(table);
+                scrollPane.setPreferredSize(new Dimension(900, 400));
                 JOptionPane.showMessageDialog(frame, scrollPane, "User Data", JOptionPane.INFORMATION_MESSAGE);
-            } catch (IOException e) {
-                e.printStackTrace();
+
+                // Release the log file once the dialog is closed
+                try {
+                    tableModel.close();
+                } catch (IOException e) {
+                    e.printStackTrace();
+                }
+            }, error -> {
+                error.printStackTrace();
                 JOptionPane.showMessageDialog(frame, "Error retrieving user data.", "Error", JOptionPane.ERROR_MESSAGE);
-            }
+            });
         } else {
             // Display a message if no user data is available
             JOptionPane.showMessageDialog(frame, "No user data available.", "Information", JOptionPane.INFORMATION_MESSAGE);
         }
     }
 
+    /**
+     * Opens the current user's effort log as a table model.
+     *
+     * @return The table model over the user's effort log.
+     * @throws IOException If an I/O error occurs.
+     */
+    private static EffortLogTableModel openUserData() throws IOException {
+        return new EffortLogTableModel(EffortLogger.getUserFile());
+    }
+
     /**
      * Adds a title panel to the parent panel at the top of the GUI.
      * 
@@ -329,14 +374,9 @@ public class EffortLoggerConsole {
      */
     private static void updateClock() {
         long elapsedTime = System.currentTimeMillis() - startTime; // Calculate elapsed time
-        long elapsedSeconds = elapsedTime / 1000;
-        long secondsDisplay = elapsedSeconds % 60;
-        long minutesDisplay = (elapsedSeconds % 3600) / 60;
-        long hoursDisplay = elapsedSeconds / 3600;
 
         // Format and display the elapsed time
-        String timeString = String.format("%02d:%02d:%02d", hoursDisplay, minutesDisplay, secondsDisplay);
-        timerLabel.setText(timeString);
+        timerLabel.setText(TimeFormat.formatDuration(elapsedTime));
     }
 
     /**
@@ -353,7 +393,6 @@ public class EffortLoggerConsole {
     /**
      * Stops the clock timer and resets the UI to its default state.
      */
-    @SuppressWarnings("unused")
     private static void stopClock() {
         clockTimer.stop(); // Stop the timer
         clockPanel.setBackground(Color.RED); // Red background indicates clock is stopped
@@ -387,11 +426,20 @@ public class EffortLoggerConsole {
                 clockTimer.start();
 
                 // Retrieve selections from dropdowns
+                String project = projectDropdown.getSelectedItem().toString();
                 String lifeCycle = lifeCycleDropdown.getSelectedItem().toString();
                 String effortCategory = effortCategoryDropdown.getSelectedItem().toString();
-
-                // Start clock with selected life cycle and effort category
-                effortLogger.startClock(lifeCycle, effortCategory);
+                String deliverable = deliverableDropdown.getSelectedItem().toString();
+
+                // Start clock with the selected project information, in order with any pending stop
+                AsyncIOService.run(frame, "Starting activity...", () -> {
+                    effortLogger.startClock(project, lifeCycle, effortCategory, deliverable);
+                    return null;
+                }, done -> {}, error -> {
+                    error.printStackTrace();
+                    stopClock(); // No sequence number could be taken, so the activity is not running
+                    JOptionPane.showMessageDialog(frame, "Error starting the activity.", "Error", JOptionPane.ERROR_MESSAGE);
+                });
             }
         });
 
@@ -462,7 +510,14 @@ public class EffortLoggerConsole {
             clockPanel.setBackground(Color.RED); // Change color to indicate stopped clock
             clockLabel.setText("Clock is Stopped");
             clockTimer.stop(); // Stop the clock timer
-            effortLogger.endClock(); // Invoke method to handle end of clock in EffortLogger
+            // Invoke method to handle end of clock in EffortLogger; it writes the log entry on the I/O thread
+            AsyncIOService.run(frame, "Saving effort log entry...", () -> {
+                effortLogger.endClock();
+                return null;
+            }, done -> {}, error -> {
+                error.printStackTrace();
+                JOptionPane.showMessageDialog(frame, "Error saving effort log entry.", "Error", JOptionPane.ERROR_MESSAGE);
+            });
         });
 
         stopActivityPanel.add(stopInstructionLabel, BorderLayout.NORTH); // Add instruction label
@@ -478,10 +533,13 @@ public class EffortLoggerConsole {
      * @param state The state of the tutorial to be displayed.
      */
     private static void turtorial_login(JPanel parentPanel, int state) {
-        // Create an instance of EffortLoggerHelp
-        EffortLoggerHelp effortLoggerHelpInstance = new EffortLoggerHelp();
+        // Create the EffortLoggerHelp window on first use, or again after it was closed
+        if (helpWindow == null || !helpWindow.isDisplayable()) {
+            helpWindow = new EffortLoggerHelp();
+        }
 
-        // Show the EffortLoggerHelp instance
-        effortLoggerHelpInstance.setVisible(true);
+        // Show the EffortLoggerHelp window
+        helpWindow.setVisible(true);
+        helpWindow.toFront();
     }
 }
\ No newline at end of file
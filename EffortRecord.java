@@ -0,0 +1,194 @@
+package EffortLogger;
+
+//
+//File Name: EffortRecord.java
+//Creator: Team Th15
+//Last Updated: 10/18/2026
+//Project: CSE360 Team Th15 EFFORTLOGGER V2
+//Description: 	This file defines the record format of the encrypted effort log. Every record is length-prefixed and
+//				carries its own format version and type, so the log can be read one record at a time and new versions
+//				can be added without rewriting old logs. Text fields are stored Caesar-encrypted, numbers as raw values.
+//
+//				Record layout (big-endian):
+//					int    length of everything after this field
+//					byte   format version
+//					byte   record type
+//					...    fields of the record type
+//
+//				EFFORT (version 1): int counter, long start time, long end time, long duration (all times in
+//				milliseconds, start and end since the epoch), then the life cycle and effort category as strings.
+//				EFFORT (version 2): the same layout, but the duration is in nanoseconds, measured with System.nanoTime
+//				so wall-clock changes do not affect it. The start time is the wall-clock anchor taken when the clock
+//				started, and the end time is the anchor plus the measured duration.
+//				EFFORT (version 3): version 2 followed by the project and the deliverable as strings.
+//				TEXT (version 1): one string, used for log entries carried over from the old unstructured format.
+//				Strings are stored as an unsigned short byte count followed by the encrypted UTF-8 bytes.
+
+
+import java.nio.ByteBuffer;
+
+public class EffortRecord {
+
+    // Current format version written for new records
+    public static final byte VERSION = 3;
+
+    // First version whose effort records store the duration in nanoseconds
+    public static final byte VERSION_NANO_DURATION = 2;
+
+    // First version whose effort records store the project and deliverable
+    public static final byte VERSION_PROJECT_DELIVERABLE = 3;
+
+    // Record types
+    public static final byte TYPE_EFFORT = 1;
+    public static final byte TYPE_TEXT = 2;
+
+    // Size of the length prefix, and of the version and type bytes that follow it
+    public static final int LENGTH_PREFIX_SIZE = 4;
+    public static final int RECORD_HEADER_SIZE = LENGTH_PREFIX_SIZE + 2;
+
+    // Longest string a record can hold, in encoded bytes
+    public static final int MAX_STRING_BYTES = 0xFFFF;
+
+    //--------------------------------------------encoding methods--------------------------------------------------------------
+
+    /**
+     * Encodes a logged effort as a record.
+     *
+     * @param counter         Sequence number of the effort.
+     * @param startMillis     Start time in milliseconds since the epoch.
+     * @param endMillis       End time in milliseconds since the epoch.
+     * @param durationNanos   Duration in nanoseconds, measured on a monotonic clock.
+     * @param lifeCycle       Life cycle phase associated with the effort.
+     * @param effortCategory  Category of the effort.
+     * @param project         Project the effort was spent on.
+     * @param deliverable     Deliverable the effort was spent on.
+     * @return The encoded record, including its length prefix.
+     */
+    public static byte[] encodeEffort(int counter, long startMillis, long endMillis, long durationNanos, String lifeCycle, String effortCategory,
+                                      String project, String deliverable)
+    {
+        lifeCycle = lifeCycle == null ? "" : lifeCycle;
+        effortCategory = effortCategory == null ? "" : effortCategory;
+        project = project == null ? "" : project;
+        deliverable = deliverable == null ? "" : deliverable;
+        int lifeCycleSize = stringSize(lifeCycle);
+        int categorySize = stringSize(effortCategory);
+        int projectSize = stringSize(project);
+        int deliverableSize = stringSize(deliverable);
+
+        int payloadSize = 2 + 4 + 8 + 8 + 8 + 2 + lifeCycleSize + 2 + categorySize + 2 + projectSize + 2 + deliverableSize;
+        ByteBuffer buffer = ByteBuffer.allocate(LENGTH_PREFIX_SIZE + payloadSize);
+        buffer.putInt(payloadSize);
+        buffer.put(VERSION);
+        buffer.put(TYPE_EFFORT);
+        buffer.putInt(counter);
+        buffer.putLong(startMillis);
+        buffer.putLong(endMillis);
+        buffer.putLong(durationNanos);
+        putString(buffer, lifeCycle, lifeCycleSize);
+        putString(buffer, effortCategory, categorySize);
+        putString(buffer, project, projectSize);
+        putString(buffer, deliverable, deliverableSize);
+        return buffer.array();
+    }
+
+    /**
+     * Encodes a free-form text entry as a record.
+     *
+     * @param text The text of the entry.
+     * @return The encoded record, including its length prefix.
+     */
+    public static byte[] encodeText(String text)
+    {
+        text = text == null ? "" : text;
+        int textSize = stringSize(text);
+
+        int payloadSize = 2 + 2 + textSize;
+        ByteBuffer buffer = ByteBuffer.allocate(LENGTH_PREFIX_SIZE + payloadSize);
+        buffer.putInt(payloadSize);
+        buffer.put(VERSION);
+        buffer.put(TYPE_TEXT);
+        putString(buffer, text, textSize);
+        return buffer.array();
+    }
+
+    /**
+     * Computes the number of bytes a string takes up in a record once encrypted and encoded.
+     *
+     * @param value The string to encode.
+     * @return The encrypted UTF-8 byte count.
+     */
+    private static int stringSize(String value)
+    {
+        int size = EncryptDecrypt.encryptedLength(value);
+        if (size > MAX_STRING_BYTES)
+        {
+            throw new IllegalArgumentException("Record field too long: " + size + " bytes");
+        }
+        return size;
+    }
+
+    /**
+     * Encrypts and writes a string straight into the record, preceded by its byte count.
+     *
+     * @param buffer The buffer to write into.
+     * @param value  The string to write.
+     * @param size   The string's encrypted byte count, from stringSize.
+     */
+    private static void putString(ByteBuffer buffer, String value, int size)
+    {
+        buffer.putShort((short) size);
+        EncryptDecrypt.encodeEncrypted(value, buffer);
+    }
+
+    //--------------------------------------------formatting methods--------------------------------------------------------------
+
+    /**
+     * Formats the effort record the reader is positioned on as one line of text for display.
+     * Fields are separated by tabs: counter, date, start, end, duration, life cycle, effort category, project,
+     * deliverable.
+     *
+     * @param reader A reader positioned on a record.
+     * @return The formatted record.
+     */
+    public static String format(EffortRecordReader reader)
+    {
+        if (reader.type() == TYPE_TEXT)
+        {
+            return reader.text();
+        }
+        return String.join("\t", formatFields(reader));
+    }
+
+    /**
+     * Formats each field of the record the reader is positioned on for display.
+     * Text records carried over from the old format have no separate fields; their text is returned as the life cycle.
+     *
+     * @param reader A reader positioned on a record.
+     * @return Counter, date, start, end, duration, life cycle, effort category, project, and deliverable, in that order.
+     */
+    public static String[] formatFields(EffortRecordReader reader)
+    {
+        if (reader.type() == TYPE_TEXT)
+        {
+            return new String[] {"", "", "", "", "", reader.text(), "", "", ""};
+        }
+
+        if (reader.type() != TYPE_EFFORT)
+        {
+            return new String[] {"", "", "", "", "", "(unknown record type " + reader.type() + ")", "", "", ""};
+        }
+
+        return new String[] {
+                Integer.toString(reader.counter()),
+                TimeFormat.formatDate(reader.startMillis()),
+                TimeFormat.formatTime(reader.startMillis()),
+                TimeFormat.formatTime(reader.endMillis()),
+                TimeFormat.formatDuration(reader.deltaMillis()),
+                reader.lifeCycle(),
+                reader.effortCategory(),
+                reader.project(),
+                reader.deliverable()
+        };
+    }
+}
@@ -0,0 +1,345 @@
+package EffortLogger;
+
+//
+//File Name: EffortRecordReader.java
+//Creator: Team Th15
+//Last Updated: 10/18/2026
+//Project: CSE360 Team Th15 EFFORTLOGGER V2
+//Description: 	This file contains a streaming reader for effort logs written in the EffortRecord format. The log file is
+//				read in windows into one reused heap buffer with positional reads, and the reader moves from record to
+//				record within the window without copying them. Field accessors read straight from the buffer; text fields
+//				are only decoded and decrypted when asked for. The file is not memory-mapped, because a mapping keeps the
+//				file open until it is garbage collected, and on Windows the compactor and the migration could then not
+//				delete or replace a segment they have just read.
+//				A record cut short at the end of the file (for example by a crash mid-write) ends the log.
+//				Records already held in memory, such as a decompressed block of a compacted segment, are read the same way.
+
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.*;
+
+public class EffortRecordReader implements Closeable {
+
+    // Size of the file region read at a time; a longer record gets a window of its own size
+    private static final int WINDOW_SIZE = 1 << 20;
+
+    private final FileChannel channel;
+    private final long fileSize;
+
+    // Currently read region of the file, or all records when reading from memory
+    private ByteBuffer window;
+    private long windowStart;
+
+    // File offset of the next record, and of the record the reader is positioned on
+    private long nextOffset = 0;
+    private long recordOffset = -1;
+
+    // Position of the current record within the window, and its header fields
+    private int recordPosition;
+    private byte recordVersion;
+    private byte recordType;
+
+    /**
+     * Opens a reader over an effort log file.
+     *
+     * @param logFile The effort log file to read.
+     * @throws IOException If an I/O error occurs.
+     */
+    public EffortRecordReader(Path logFile) throws IOException
+    {
+        channel = FileChannel.open(logFile, StandardOpenOption.READ);
+        fileSize = channel.size();
+    }
+
+    /**
+     * Opens a reader over records held in memory.
+     *
+     * @param records The records, from position 0 to the buffer's limit.
+     */
+    public EffortRecordReader(ByteBuffer records)
+    {
+        channel = null;
+        window = records;
+        windowStart = 0;
+        fileSize = records.limit();
+    }
+
+    //--------------------------------------------navigation methods--------------------------------------------------------------
+
+    /**
+     * Moves the reader to the next record.
+     *
+     * @return true if the reader is positioned on a record, false at the end of the log.
+     * @throws IOException If an I/O error occurs.
+     */
+    public boolean next() throws IOException
+    {
+        if (nextOffset + EffortRecord.LENGTH_PREFIX_SIZE > fileSize)
+        {
+            return false;
+        }
+
+        if (!fill(nextOffset, EffortRecord.LENGTH_PREFIX_SIZE))
+        {
+            return false;
+        }
+        int length = window.getInt((int) (nextOffset - windowStart));
+
+        // A record that is cut short or has a damaged length prefix ends the log
+        if (length < 2 || nextOffset + EffortRecord.LENGTH_PREFIX_SIZE + length > fileSize
+                || !fill(nextOffset, EffortRecord.LENGTH_PREFIX_SIZE + length))
+        {
+            return false;
+        }
+
+        recordOffset = nextOffset;
+        recordPosition = (int) (nextOffset - windowStart);
+        recordVersion = window.get(recordPosition + EffortRecord.LENGTH_PREFIX_SIZE);
+        recordType = window.get(recordPosition + EffortRecord.LENGTH_PREFIX_SIZE + 1);
+        nextOffset += EffortRecord.LENGTH_PREFIX_SIZE + length;
+        return true;
+    }
+
+    /**
+     * Moves the reader so that the next call to next() reads the record starting at the specified offset.
+     *
+     * @param offset File offset of a record, as returned by recordOffset().
+     */
+    public void seek(long offset)
+    {
+        nextOffset = offset;
+        recordOffset = -1;
+    }
+
+    /**
+     * Makes sure the specified file region is inside the window, reading a new window starting at the region if it
+     * is not. The buffer is reused, and only replaced by a larger one for a record longer than the window.
+     *
+     * @param offset File offset of the region.
+     * @param size   Size of the region in bytes.
+     * @return true if the region is in the window, false if the file ended before it, e.g. because it shrank.
+     * @throws IOException If an I/O error occurs.
+     */
+    private boolean fill(long offset, int size) throws IOException
+    {
+        if (window != null && offset >= windowStart && offset + size <= windowStart + window.limit())
+        {
+            return true;
+        }
+        if (channel == null)
+        {
+            return false;
+        }
+
+        if (window == null || window.capacity() < size)
+        {
+            window = ByteBuffer.allocate((int) Math.min(Math.max(WINDOW_SIZE, size), fileSize));
+        }
+        window.clear();
+        window.limit((int) Math.min(window.capacity(), fileSize - offset));
+        windowStart = offset;
+        while (window.hasRemaining())
+        {
+            if (channel.read(window, offset + window.position()) < 0)
+            {
+                break;
+            }
+        }
+        window.flip();
+        return size <= window.limit();
+    }
+
+    @Override
+    public void close() throws IOException
+    {
+        window = null;
+        if (channel != null)
+        {
+            channel.close();
+        }
+    }
+
+    //--------------------------------------------record accessors--------------------------------------------------------------
+
+    /**
+     * @return File offset of the current record.
+     */
+    public long recordOffset()
+    {
+        return recordOffset;
+    }
+
+    /**
+     * @return File offset just past the current record, where the next record starts.
+     */
+    public long endOffset()
+    {
+        return nextOffset;
+    }
+
+    /**
+     * Copies the current record, including its length prefix, for example to write it elsewhere.
+     *
+     * @return The record's bytes.
+     */
+    public byte[] recordBytes()
+    {
+        byte[] bytes = new byte[(int) (nextOffset - recordOffset)];
+        window.get(recordPosition, bytes);
+        return bytes;
+    }
+
+    /**
+     * @return Format version of the current record.
+     */
+    public byte version()
+    {
+        return recordVersion;
+    }
+
+    /**
+     * @return Type of the current record, one of the EffortRecord.TYPE_ constants.
+     */
+    public byte type()
+    {
+        return recordType;
+    }
+
+    /**
+     * @return Sequence number of the current effort record.
+     */
+    public int counter()
+    {
+        return window.getInt(fieldPosition(0));
+    }
+
+    /**
+     * @return Start time of the current effort record, in milliseconds since the epoch.
+     */
+    public long startMillis()
+    {
+        return window.getLong(fieldPosition(4));
+    }
+
+    /**
+     * @return End time of the current effort record, in milliseconds since the epoch.
+     */
+    public long endMillis()
+    {
+        return window.getLong(fieldPosition(12));
+    }
+
+    /**
+     * @return Duration of the current effort record, in milliseconds.
+     */
+    public long deltaMillis()
+    {
+        long duration = window.getLong(fieldPosition(20));
+        return recordVersion >= EffortRecord.VERSION_NANO_DURATION ? duration / 1_000_000 : duration;
+    }
+
+    /**
+     * Retrieves the exact duration of the current effort record. Records written before durations were measured
+     * in nanoseconds are converted from their millisecond durations.
+     *
+     * @return Duration of the current effort record, in nanoseconds.
+     */
+    public long durationNanos()
+    {
+        long duration = window.getLong(fieldPosition(20));
+        return recordVersion >= EffortRecord.VERSION_NANO_DURATION ? duration : duration * 1_000_000;
+    }
+
+    /**
+     * @return Life cycle phase of the current effort record, decrypted.
+     */
+    public String lifeCycle()
+    {
+        return readString(fieldPosition(28));
+    }
+
+    /**
+     * @return Effort category of the current effort record, decrypted.
+     */
+    public String effortCategory()
+    {
+        return readString(skipString(fieldPosition(28)));
+    }
+
+    /**
+     * @return Project of the current effort record, decrypted; empty for records written before projects were stored.
+     */
+    public String project()
+    {
+        if (recordVersion < EffortRecord.VERSION_PROJECT_DELIVERABLE)
+        {
+            return "";
+        }
+        return readString(skipString(skipString(fieldPosition(28))));
+    }
+
+    /**
+     * @return Deliverable of the current effort record, decrypted; empty for records written before deliverables were stored.
+     */
+    public String deliverable()
+    {
+        if (recordVersion < EffortRecord.VERSION_PROJECT_DELIVERABLE)
+        {
+            return "";
+        }
+        return readString(skipString(skipString(skipString(fieldPosition(28)))));
+    }
+
+    /**
+     * @return Text of the current text record, decrypted.
+     */
+    public String text()
+    {
+        if (recordType != EffortRecord.TYPE_TEXT)
+        {
+            throw new IllegalStateException("Not a text record: type " + recordType);
+        }
+        return readString(recordPosition + EffortRecord.RECORD_HEADER_SIZE);
+    }
+
+    /**
+     * Computes the window position of a field of the current effort record.
+     *
+     * @param fieldOffset Offset of the field from the start of the record's fields.
+     * @return Position of the field within the window.
+     */
+    private int fieldPosition(int fieldOffset)
+    {
+        if (recordType != EffortRecord.TYPE_EFFORT)
+        {
+            throw new IllegalStateException("Not an effort record: type " + recordType);
+        }
+        return recordPosition + EffortRecord.RECORD_HEADER_SIZE + fieldOffset;
+    }
+
+    /**
+     * Finds the position just after a string field.
+     *
+     * @param position Window position of the string field.
+     * @return Window position of the following field.
+     */
+    private int skipString(int position)
+    {
+        return position + 2 + (window.getShort(position) & 0xFFFF);
+    }
+
+    /**
+     * Decodes and decrypts a string field.
+     *
+     * @param position Window position of the string field.
+     * @return The decrypted string.
+     */
+    private String readString(int position)
+    {
+        int length = window.getShort(position) & 0xFFFF;
+        return EncryptDecrypt.decodeDecrypted(window, position + 2, length);
+    }
+}
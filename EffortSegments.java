@@ -0,0 +1,642 @@
+package EffortLogger;
+
+//
+//File Name: EffortSegments.java
+//Creator: Team Th15
+//Last Updated: 10/18/2026
+//Project: CSE360 Team Th15 EFFORTLOGGER V2
+//Description: 	This file manages the time-partitioned effort log of each user. Efforts are appended to one segment file
+//				per week, chosen by the effort's start time, so a query over a date range only opens the segments of the
+//				weeks it covers. Once a week is over, a background compactor merges its segment into a compacted file:
+//				the records sorted by start time and packed into GZIP-compressed blocks, each with its time range in the
+//				file header, so range queries only decompress the blocks they need. The log file from before segments
+//				existed is kept as the undated segment; it holds the entries carried over from the old text formats.
+//
+//				Compacted segment layout (big-endian):
+//					int    magic number "ELC1"
+//					int    number of blocks
+//					per block: long first start time, long last start time, int record count, int compressed size
+//					the compressed blocks, in the same order; each is GZIP data of consecutive EffortRecord records
+
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.*;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+public class EffortSegments {
+
+    // Identifies a compacted segment file
+    private static final int COMPACTED_MAGIC = 0x454C4331;
+
+    // Uncompressed size after which a compacted block is closed and a new one started
+    private static final int BLOCK_SIZE = 64 * 1024;
+
+    // Size of the header of each block in a compacted segment
+    private static final int BLOCK_HEADER_SIZE = 8 + 8 + 4 + 4;
+
+    // How often the compactor looks for weeks to compact, in minutes
+    private static final long COMPACT_INTERVAL_MINUTES = Long.getLong("effortlogger.compactIntervalMinutes", 60);
+
+    // Weekly segment names after the user's prefix: the week's Monday, and whether the segment is compacted
+    private static final Pattern SEGMENT_NAME = Pattern.compile("(\\d{4}-\\d{2}-\\d{2})(_compacted)?\\.dat");
+
+    // Name of the undated segment after the user's prefix
+    private static final String UNDATED_SEGMENT_NAME = "encrypted.dat";
+
+    private static final AtomicBoolean compactorStarted = new AtomicBoolean(false);
+
+    /**
+     * Receives the records found by a query. The reader is positioned on the record, and only valid during the call.
+     */
+    public interface RecordVisitor
+    {
+        void visit(EffortRecordReader reader) throws IOException;
+    }
+
+    /**
+     * One segment file of a user's effort log.
+     */
+    public static final class Segment
+    {
+        private final Path file;
+        private final LocalDate weekStart;
+        private final boolean compacted;
+
+        private Segment(Path file, LocalDate weekStart, boolean compacted)
+        {
+            this.file = file;
+            this.weekStart = weekStart;
+            this.compacted = compacted;
+        }
+
+        /**
+         * @return The segment file.
+         */
+        public Path getFile()
+        {
+            return file;
+        }
+
+        /**
+         * @return Monday of the week the segment holds, or null for the undated segment.
+         */
+        public LocalDate getWeekStart()
+        {
+            return weekStart;
+        }
+
+        /**
+         * @return true if the segment was compacted into sorted, compressed blocks.
+         */
+        public boolean isCompacted()
+        {
+            return compacted;
+        }
+    }
+
+    /**
+     * A record read during compaction, with the start time it is sorted by.
+     */
+    private static class SortableRecord
+    {
+        final long startMillis;
+        final byte[] bytes;
+
+        SortableRecord(long startMillis, byte[] bytes)
+        {
+            this.startMillis = startMillis;
+            this.bytes = bytes;
+        }
+    }
+
+    //--------------------------------------------layout methods--------------------------------------------------------------
+
+    /**
+     * Retrieves the segment an effort is appended to: the segment of the week the effort started in.
+     *
+     * @param userFile    The user's credential file.
+     * @param startMillis Start time of the effort in milliseconds since the epoch.
+     * @return Path to the live segment file of that week.
+     */
+    public static Path getSegmentFile(Path userFile, long startMillis)
+    {
+        return UserStorage.getSegmentFile(userFile, EffortAggregates.weekOf(startMillis));
+    }
+
+    /**
+     * Lists a user's log segments in time order: the undated segment first, then each week, with a compacted
+     * segment before any live segment of the same week (the live one holds efforts stopped after compaction).
+     *
+     * @param userFile The user's credential file.
+     * @return The segments that exist on disk.
+     * @throws IOException If an I/O error occurs.
+     */
+    public static List<Segment> listSegments(Path userFile) throws IOException
+    {
+        List<Segment> segments = new ArrayList<>();
+        Path logFolder = UserStorage.getLogFolder(userFile);
+        if (!Files.isDirectory(logFolder))
+        {
+            return segments;
+        }
+
+        String prefix = UserStorage.getSegmentPrefix(userFile);
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(logFolder, prefix + "*.dat"))
+        {
+            for (Path file : files)
+            {
+                String name = file.getFileName().toString().substring(prefix.length());
+                if (name.equals(UNDATED_SEGMENT_NAME))
+                {
+                    segments.add(new Segment(file, null, false));
+                    continue;
+                }
+
+                Matcher matcher = SEGMENT_NAME.matcher(name);
+                if (matcher.matches())
+                {
+                    segments.add(new Segment(file, LocalDate.parse(matcher.group(1)), matcher.group(2) != null));
+                }
+            }
+        }
+
+        segments.sort(Comparator.comparing((Segment segment) -> segment.weekStart, Comparator.nullsFirst(Comparator.naturalOrder()))
+                                .thenComparing(segment -> !segment.compacted));
+        return segments;
+    }
+
+    //--------------------------------------------query methods--------------------------------------------------------------
+
+    /**
+     * Visits every record of a user's log, in segment order, including the undated text entries.
+     *
+     * @param userFile The user's credential file.
+     * @param visitor  Receives each record.
+     * @throws IOException If an I/O error occurs.
+     */
+    public static void forEachRecord(Path userFile, RecordVisitor visitor) throws IOException
+    {
+        for (Segment segment : listSegments(userFile))
+        {
+            EffortLogWriter.flush(segment.file);
+            try (EffortRecordReader reader = open(segment))
+            {
+                while (reader.next())
+                {
+                    visitor.visit(reader);
+                }
+            }
+        }
+    }
+
+    /**
+     * Visits the effort records of a user that started within a time range. Only the segments of the weeks in
+     * the range are opened, and in compacted segments only the blocks overlapping the range are decompressed.
+     *
+     * @param userFile   The user's credential file.
+     * @param fromMillis Start of the range, inclusive, in milliseconds since the epoch.
+     * @param toMillis   End of the range, exclusive, in milliseconds since the epoch.
+     * @param visitor    Receives each effort record in the range.
+     * @throws IOException If an I/O error occurs.
+     */
+    public static void forEachRecord(Path userFile, long fromMillis, long toMillis, RecordVisitor visitor) throws IOException
+    {
+        if (fromMillis >= toMillis)
+        {
+            return;
+        }
+
+        LocalDate firstWeek = EffortAggregates.weekOf(fromMillis);
+        LocalDate lastWeek = EffortAggregates.weekOf(toMillis - 1);
+
+        for (Segment segment : listSegments(userFile))
+        {
+            if (segment.weekStart == null || segment.weekStart.isBefore(firstWeek) || segment.weekStart.isAfter(lastWeek))
+            {
+                continue;
+            }
+
+            if (segment.compacted)
+            {
+                visitCompacted(segment.file, fromMillis, toMillis, visitor);
+                continue;
+            }
+
+            EffortLogWriter.flush(segment.file);
+            try (EffortRecordReader reader = new EffortRecordReader(segment.file))
+            {
+                visitInRange(reader, fromMillis, toMillis, visitor);
+            }
+        }
+    }
+
+    /**
+     * Opens a reader over all records of a segment. Compacted segments are decompressed into memory.
+     *
+     * @param segment The segment to read.
+     * @return A reader positioned before the segment's first record.
+     * @throws IOException If an I/O error occurs.
+     */
+    public static EffortRecordReader open(Segment segment) throws IOException
+    {
+        if (!segment.compacted)
+        {
+            return new EffortRecordReader(segment.file);
+        }
+
+        ByteArrayOutputStream records = new ByteArrayOutputStream();
+        try (FileChannel channel = FileChannel.open(segment.file, StandardOpenOption.READ))
+        {
+            long[][] blocks = readBlockHeaders(channel);
+            for (long[] block : blocks)
+            {
+                records.write(readBlock(channel, block));
+            }
+        }
+        return new EffortRecordReader(ByteBuffer.wrap(records.toByteArray()));
+    }
+
+    /**
+     * Retrieves the number of records in each block of a compacted segment, without decompressing any block.
+     *
+     * @param compactedFile The compacted segment file.
+     * @return The record count of each block, in file order.
+     * @throws IOException If the file is not a compacted segment or cannot be read.
+     */
+    static int[] getBlockRecordCounts(Path compactedFile) throws IOException
+    {
+        try (FileChannel channel = FileChannel.open(compactedFile, StandardOpenOption.READ))
+        {
+            long[][] blocks = readBlockHeaders(channel);
+            int[] recordCounts = new int[blocks.length];
+            for (int i = 0; i < blocks.length; i++)
+            {
+                recordCounts[i] = (int) blocks[i][2];
+            }
+            return recordCounts;
+        }
+    }
+
+    /**
+     * Opens a reader over the records of one block of a compacted segment. Only that block is decompressed.
+     *
+     * @param compactedFile The compacted segment file.
+     * @param blockIndex    The block's position in the file, from 0.
+     * @return A reader positioned before the block's first record.
+     * @throws IOException If the file is not a compacted segment or cannot be read.
+     */
+    static EffortRecordReader openBlock(Path compactedFile, int blockIndex) throws IOException
+    {
+        try (FileChannel channel = FileChannel.open(compactedFile, StandardOpenOption.READ))
+        {
+            long[][] blocks = readBlockHeaders(channel);
+            if (blockIndex < 0 || blockIndex >= blocks.length)
+            {
+                throw new IOException("Compacted effort log segment has no block " + blockIndex + ": " + compactedFile);
+            }
+            return new EffortRecordReader(ByteBuffer.wrap(readBlock(channel, blocks[blockIndex])));
+        }
+    }
+
+    /**
+     * Visits the effort records of a compacted segment that started within a time range.
+     *
+     * @param file       The compacted segment file.
+     * @param fromMillis Start of the range, inclusive.
+     * @param toMillis   End of the range, exclusive.
+     * @param visitor    Receives each effort record in the range.
+     * @throws IOException If an I/O error occurs.
+     */
+    private static void visitCompacted(Path file, long fromMillis, long toMillis, RecordVisitor visitor) throws IOException
+    {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ))
+        {
+            for (long[] block : readBlockHeaders(channel))
+            {
+                // Blocks are sorted, so skip those entirely outside the range
+                if (block[1] < fromMillis || block[0] >= toMillis)
+                {
+                    continue;
+                }
+
+                try (EffortRecordReader reader = new EffortRecordReader(ByteBuffer.wrap(readBlock(channel, block))))
+                {
+                    visitInRange(reader, fromMillis, toMillis, visitor);
+                }
+            }
+        }
+    }
+
+    /**
+     * Visits the effort records of a reader that started within a time range.
+     */
+    private static void visitInRange(EffortRecordReader reader, long fromMillis, long toMillis, RecordVisitor visitor) throws IOException
+    {
+        while (reader.next())
+        {
+            if (reader.type() == EffortRecord.TYPE_EFFORT && reader.startMillis() >= fromMillis && reader.startMillis() < toMillis)
+            {
+                visitor.visit(reader);
+            }
+        }
+    }
+
+    /**
+     * Reads the block table of a compacted segment.
+     *
+     * @param channel The open segment file.
+     * @return Per block: first start time, last start time, record count, compressed size, and file offset.
+     * @throws IOException If the file is not a compacted segment or cannot be read.
+     */
+    private static long[][] readBlockHeaders(FileChannel channel) throws IOException
+    {
+        ByteBuffer header = ByteBuffer.allocate(8);
+        readFully(channel, header, 0);
+        if (header.getInt(0) != COMPACTED_MAGIC)
+        {
+            throw new IOException("Not a compacted effort log segment");
+        }
+
+        int blockCount = header.getInt(4);
+        ByteBuffer table = ByteBuffer.allocate(blockCount * BLOCK_HEADER_SIZE);
+        readFully(channel, table, 8);
+
+        long[][] blocks = new long[blockCount][];
+        long offset = 8 + (long) blockCount * BLOCK_HEADER_SIZE;
+        for (int i = 0; i < blockCount; i++)
+        {
+            table.position(i * BLOCK_HEADER_SIZE);
+            long firstStart = table.getLong();
+            long lastStart = table.getLong();
+            int recordCount = table.getInt();
+            int compressedSize = table.getInt();
+            blocks[i] = new long[] {firstStart, lastStart, recordCount, compressedSize, offset};
+            offset += compressedSize;
+        }
+        return blocks;
+    }
+
+    /**
+     * Reads and decompresses one block of a compacted segment.
+     *
+     * @param channel The open segment file.
+     * @param block   The block's entry from readBlockHeaders.
+     * @return The block's records.
+     * @throws IOException If an I/O error occurs.
+     */
+    private static byte[] readBlock(FileChannel channel, long[] block) throws IOException
+    {
+        ByteBuffer compressed = ByteBuffer.allocate((int) block[3]);
+        readFully(channel, compressed, block[4]);
+
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(compressed.array())))
+        {
+            return in.readAllBytes();
+        }
+    }
+
+    private static void readFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException
+    {
+        while (buffer.hasRemaining())
+        {
+            if (channel.read(buffer, position + buffer.position()) < 0)
+            {
+                throw new IOException("Compacted effort log segment is cut short");
+            }
+        }
+    }
+
+    //--------------------------------------------compaction methods--------------------------------------------------------------
+
+    /**
+     * Starts the background compactor, which regularly compacts the segments of weeks that ended more than a
+     * week ago for every user. Starting it again has no effect.
+     */
+    public static void startCompactor()
+    {
+        if (!compactorStarted.compareAndSet(false, true))
+        {
+            return;
+        }
+
+        ScheduledExecutorService compactor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "EffortSegments-compactor");
+            thread.setDaemon(true);
+            thread.setPriority(Thread.MIN_PRIORITY);
+            return thread;
+        });
+        compactor.scheduleWithFixedDelay(EffortSegments::compactAll, 1, COMPACT_INTERVAL_MINUTES, TimeUnit.MINUTES);
+    }
+
+    /**
+     * Compacts the finished weeks of every user in user_info_encrypted.
+     */
+    public static void compactAll()
+    {
+        File[] userFiles = Paths.get(System.getProperty("user.dir"), UserStorage.USER_FOLDER_NAME).toFile().listFiles();
+        if (userFiles == null)
+        {
+            return;
+        }
+
+        // Efforts are filed by start time, so last week's segment stays live for efforts still running
+        LocalDate lastFinishedWeek = EffortAggregates.weekOf(System.currentTimeMillis()).minusWeeks(2);
+
+        for (File userFile : userFiles)
+        {
+            try
+            {
+                for (Segment segment : listSegments(userFile.toPath()))
+                {
+                    if (!segment.compacted && segment.weekStart != null && !segment.weekStart.isAfter(lastFinishedWeek))
+                    {
+                        EffortAggregates.compact(userFile.toPath(), segment.weekStart);
+                    }
+                }
+            }
+            catch (IOException e)
+            {
+                e.printStackTrace(); // Try again on the next run
+            }
+        }
+    }
+
+    /**
+     * Merges a week's live segment into the week's compacted segment: all records are sorted by start time and
+     * written as compressed blocks, then the live segment is deleted. The caller must make sure nothing is
+     * appended to the week's segment meanwhile; EffortAggregates.compact does this.
+     *
+     * @param userFile  The user's credential file.
+     * @param weekStart Monday of the week to compact.
+     * @throws IOException If an I/O error occurs.
+     */
+    static void compactWeek(Path userFile, LocalDate weekStart) throws IOException
+    {
+        Path liveFile = UserStorage.getSegmentFile(userFile, weekStart);
+        Path compactedFile = UserStorage.getCompactedSegmentFile(userFile, weekStart);
+        EffortLogWriter.close(liveFile);
+
+        // Gather the week's records from both forms of the segment
+        List<SortableRecord> records = new ArrayList<>();
+        if (Files.exists(compactedFile))
+        {
+            readSortable(open(new Segment(compactedFile, weekStart, true)), records);
+        }
+        if (Files.exists(liveFile))
+        {
+            readSortable(new EffortRecordReader(liveFile), records);
+        }
+        records.sort(Comparator.comparingLong(record -> record.startMillis));
+
+        writeCompacted(compactedFile, records);
+        Files.deleteIfExists(liveFile);
+    }
+
+    /**
+     * Reads all records of a reader for sorting, then closes the reader.
+     */
+    private static void readSortable(EffortRecordReader reader, List<SortableRecord> records) throws IOException
+    {
+        try (reader)
+        {
+            while (reader.next())
+            {
+                long startMillis = reader.type() == EffortRecord.TYPE_EFFORT ? reader.startMillis() : Long.MIN_VALUE;
+                records.add(new SortableRecord(startMillis, reader.recordBytes()));
+            }
+        }
+    }
+
+    /**
+     * Writes sorted records as a compacted segment, replacing any previous version atomically.
+     *
+     * @param compactedFile The compacted segment file.
+     * @param records       The records, sorted by start time.
+     * @throws IOException If an I/O error occurs.
+     */
+    private static void writeCompacted(Path compactedFile, List<SortableRecord> records) throws IOException
+    {
+        ByteArrayOutputStream table = new ByteArrayOutputStream();
+        ByteArrayOutputStream bodies = new ByteArrayOutputStream();
+        DataOutputStream tableOut = new DataOutputStream(table);
+        int blockCount = 0;
+
+        int index = 0;
+        while (index < records.size())
+        {
+            // Fill one block up to the block size
+            long firstStart = records.get(index).startMillis;
+            long lastStart = firstStart;
+            int recordCount = 0;
+            int blockBytes = 0;
+            ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+            try (GZIPOutputStream out = new GZIPOutputStream(compressed))
+            {
+                while (index < records.size() && (recordCount == 0 || blockBytes < BLOCK_SIZE))
+                {
+                    SortableRecord record = records.get(index++);
+                    out.write(record.bytes);
+                    lastStart = record.startMillis;
+                    blockBytes += record.bytes.length;
+                    recordCount++;
+                }
+            }
+
+            tableOut.writeLong(firstStart);
+            tableOut.writeLong(lastStart);
+            tableOut.writeInt(recordCount);
+            tableOut.writeInt(compressed.size());
+            compressed.writeTo(bodies);
+            blockCount++;
+        }
+
+        ByteArrayOutputStream content = new ByteArrayOutputStream();
+        DataOutputStream contentOut = new DataOutputStream(content);
+        contentOut.writeInt(COMPACTED_MAGIC);
+        contentOut.writeInt(blockCount);
+        table.writeTo(content);
+        bodies.writeTo(content);
+
+        Path tempFile = compactedFile.resolveSibling(compactedFile.getFileName() + ".tmp");
+        Files.write(tempFile, content.toByteArray(), StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+                StandardOpenOption.WRITE, StandardOpenOption.SYNC);
+        Files.move(tempFile, compactedFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    //--------------------------------------------migration methods--------------------------------------------------------------
+
+    /**
+     * Moves the effort records of a user's undated log into the weekly segments, leaving only the text entries
+     * carried over from the old formats. The records are appended to the segments before the undated log is
+     * rewritten, so an interrupted run can repeat records but never lose them.
+     *
+     * @param userFile The user's credential file.
+     * @return true if effort records were moved, false otherwise.
+     * @throws IOException If an I/O error occurs.
+     */
+    public static boolean partitionLegacyLog(Path userFile) throws IOException
+    {
+        Path undatedFile = UserStorage.getLogFile(userFile);
+        if (!Files.exists(undatedFile))
+        {
+            return false;
+        }
+
+        EffortLogWriter.flush(undatedFile);
+        ByteArrayOutputStream textRecords = new ByteArrayOutputStream();
+        Map<Path, ByteArrayOutputStream> weekRecords = new HashMap<>();
+
+        try (EffortRecordReader reader = new EffortRecordReader(undatedFile))
+        {
+            while (reader.next())
+            {
+                if (reader.type() == EffortRecord.TYPE_EFFORT)
+                {
+                    weekRecords.computeIfAbsent(getSegmentFile(userFile, reader.startMillis()), key -> new ByteArrayOutputStream())
+                               .write(reader.recordBytes());
+                }
+                else
+                {
+                    textRecords.write(reader.recordBytes());
+                }
+            }
+        }
+
+        if (weekRecords.isEmpty())
+        {
+            return false;
+        }
+
+        for (Map.Entry<Path, ByteArrayOutputStream> entry : weekRecords.entrySet())
+        {
+            EffortLogWriter writer = EffortLogWriter.forFile(entry.getKey());
+            writer.append(entry.getValue().toByteArray());
+            writer.flush();
+        }
+
+        EffortLogWriter.close(undatedFile);
+        Path tempFile = undatedFile.resolveSibling(undatedFile.getFileName() + ".tmp");
+        Files.write(tempFile, textRecords.toByteArray());
+        Files.move(tempFile, undatedFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        return true;
+    }
+}
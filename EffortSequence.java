@@ -0,0 +1,176 @@
+package EffortLogger;
+
+//
+//File Name: EffortSequence.java
+//Creator: Team Th15
+//Last Updated: 10/18/2026
+//Project: CSE360 Team Th15 EFFORTLOGGER V2
+//Description: 	This file hands out the sequence numbers of logged efforts, unique and increasing for each user across
+//				restarts. Numbers are reserved in blocks: before the first number of a block is handed out, the end of
+//				the block is saved in a small sidecar file next to the user's log. On startup the next number is read
+//				from that file, so the log history is never scanned. After a crash the unused rest of the last block is
+//				skipped, which leaves a gap in the numbering but never repeats a number. Numbers inside a reserved block
+//				are taken with a compare-and-set on an atomic counter, so only the caller that uses up a block waits for
+//				the sidecar file to be written.
+
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class EffortSequence {
+
+    // Number of sequence numbers reserved with each write of the sidecar file
+    private static final int BLOCK_SIZE = Integer.getInteger("effortlogger.sequenceBlockSize", 64);
+
+    // Sequence of each user, by absolute sequence file path
+    private static final Map<Path, EffortSequence> sequences = new ConcurrentHashMap<>();
+
+    private final Path sequenceFile;
+    private final Path userFile;
+
+    // Next number to hand out
+    private final AtomicInteger next = new AtomicInteger();
+
+    // First number not yet reserved in the sidecar file; only raised after the reservation is saved, under this sequence
+    private volatile int reservedUpTo = 0;
+
+    // Whether the start of the sequence was read; guarded by this sequence
+    private boolean loaded = false;
+
+    /**
+     * Creates the sequence of one user; the sidecar file is read on first use.
+     *
+     * @param sequenceFile The user's sequence file.
+     * @param userFile     The user's credential file.
+     */
+    private EffortSequence(Path sequenceFile, Path userFile)
+    {
+        this.sequenceFile = sequenceFile;
+        this.userFile = userFile;
+    }
+
+    //--------------------------------------------sequence methods--------------------------------------------------------------
+
+    /**
+     * Retrieves the next sequence number for a user's efforts. Numbers start at 1.
+     *
+     * @param userFile The user's credential file.
+     * @return The next sequence number, greater than every number handed out before for the user.
+     * @throws IOException If the sidecar file cannot be read or written.
+     */
+    public static int next(Path userFile) throws IOException
+    {
+        Path sequenceFile = UserStorage.getSequenceFile(userFile).toAbsolutePath();
+        EffortSequence sequence = sequences.get(sequenceFile);
+        if (sequence == null)
+        {
+            sequence = sequences.computeIfAbsent(sequenceFile,
+                    key -> new EffortSequence(key, userFile));
+        }
+        return sequence.nextValue();
+    }
+
+    /**
+     * Hands out the next number, reserving a new block first when the current one is used up.
+     *
+     * @return The next sequence number.
+     * @throws IOException If the sidecar file cannot be read or written.
+     */
+    private int nextValue() throws IOException
+    {
+        while (true)
+        {
+            // A number below the saved reservation can be taken without locking
+            int value = next.get();
+            if (value < reservedUpTo)
+            {
+                if (next.compareAndSet(value, value + 1))
+                {
+                    return value;
+                }
+            }
+            else
+            {
+                reserveBlock();
+            }
+        }
+    }
+
+    /**
+     * Reads the start of the sequence on first use, and saves the reservation of a new block if the current
+     * one is used up. Callers that find the block used up meanwhile wait here until it is saved.
+     *
+     * @throws IOException If the sidecar file cannot be read or written.
+     */
+    private synchronized void reserveBlock() throws IOException
+    {
+        if (!loaded)
+        {
+            int start = readStart();
+            next.set(start);
+            reservedUpTo = start;
+            loaded = true;
+        }
+
+        if (next.get() >= reservedUpTo)
+        {
+            // Save the end of the new block before using any number in it
+            writeReservation(reservedUpTo + BLOCK_SIZE);
+            reservedUpTo += BLOCK_SIZE;
+        }
+    }
+
+    //--------------------------------------------persistence methods--------------------------------------------------------------
+
+    /**
+     * Determines the first number to hand out after startup.
+     * This is the end of the last saved reservation. Logs written before sequence files existed have no sidecar
+     * file; for those the log is scanned once for its highest number, and the sidecar file is used from then on.
+     *
+     * @return The first sequence number to hand out.
+     * @throws IOException If an I/O error occurs.
+     */
+    private int readStart() throws IOException
+    {
+        if (Files.exists(sequenceFile))
+        {
+            try
+            {
+                return Math.max(1, Integer.parseInt(Files.readString(sequenceFile, StandardCharsets.UTF_8).trim()));
+            }
+            catch (NumberFormatException e)
+            {
+                // A damaged sidecar file is rebuilt from the log below
+            }
+        }
+
+        int[] highest = {0};
+        EffortSegments.forEachRecord(userFile, reader -> {
+            if (reader.type() == EffortRecord.TYPE_EFFORT)
+            {
+                highest[0] = Math.max(highest[0], reader.counter());
+            }
+        });
+        return highest[0] + 1;
+    }
+
+    /**
+     * Saves the end of the reserved block, replacing the previous sidecar file atomically.
+     *
+     * @param reservedEnd The first number not covered by the reservation.
+     * @throws IOException If an I/O error occurs.
+     */
+    private void writeReservation(int reservedEnd) throws IOException
+    {
+        Files.createDirectories(sequenceFile.getParent());
+        Path tempPath = sequenceFile.resolveSibling(sequenceFile.getFileName() + ".tmp");
+        Files.writeString(tempPath, Integer.toString(reservedEnd), StandardCharsets.UTF_8,
+                StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE,
+                StandardOpenOption.SYNC);
+        Files.move(tempPath, sequenceFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+}
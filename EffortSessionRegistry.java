@@ -0,0 +1,208 @@
+package EffortLogger;
+
+//
+//File Name: EffortSessionRegistry.java
+//Creator: Team Th15
+//Last Updated: 10/18/2026
+//Project: CSE360 Team Th15 EFFORTLOGGER V2
+//Description: 	This file contains the registry of open effort sessions used when EffortLogger is shared by a whole team.
+//				Every user has a session that can hold several open activities at once. Sessions are kept in a
+//				ConcurrentHashMap keyed by user file, so different users never contend, and an activity is an immutable
+//				object that is put into and taken out of its session's map. A session is created with the user's first
+//				open activity and removed with the last, inside the registry map's per-user compute, so the registry
+//				only holds users who are timing an effort. No lock is held across file I/O when an activity starts or
+//				stops: starting takes a sequence number with a compare-and-set, and only the caller that uses up a block
+//				of numbers waits for the block to be saved (see EffortSequence); stopping queues the record on the log
+//				writer of that user's own file, whose thread adds it to the user's totals once it is on disk (see
+//				EffortAggregates). A stop only waits while one of the user's past weeks is being compacted.
+
+
+import java.io.IOException;
+import java.nio.file.*;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+public class EffortSessionRegistry {
+
+    // Session of each user, by absolute user file path
+    private static final Map<Path, Session> sessions = new ConcurrentHashMap<>();
+
+    // Identifiers of activities; shared by all sessions, so an id is never reused when a session is created again
+    private static final AtomicLong nextActivityId = new AtomicLong();
+
+    /**
+     * The open activities of one user. Only changed inside a compute of the registry map for the user's key.
+     */
+    private static class Session
+    {
+        final Map<Long, Activity> activities = new ConcurrentHashMap<>();
+    }
+
+    /**
+     * An open activity: the effort being timed and when it started. Activities never change once started.
+     */
+    public static final class Activity
+    {
+        private final long id;
+        private final int counter;
+        private final long startMillis;
+        private final long startNanos;
+        private final String project;
+        private final String lifeCycle;
+        private final String effortCategory;
+        private final String deliverable;
+
+        private Activity(long id, int counter, long startMillis, long startNanos, String project, String lifeCycle,
+                         String effortCategory, String deliverable)
+        {
+            this.id = id;
+            this.counter = counter;
+            this.startMillis = startMillis;
+            this.startNanos = startNanos;
+            this.project = project;
+            this.lifeCycle = lifeCycle;
+            this.effortCategory = effortCategory;
+            this.deliverable = deliverable;
+        }
+
+        /**
+         * @return Identifier of the activity within its user's session.
+         */
+        public long getId()
+        {
+            return id;
+        }
+
+        /**
+         * @return Sequence number the effort is logged with.
+         */
+        public int getCounter()
+        {
+            return counter;
+        }
+
+        /**
+         * @return Start time in milliseconds since the epoch.
+         */
+        public long getStartMillis()
+        {
+            return startMillis;
+        }
+
+        /**
+         * @return Project the effort is spent on.
+         */
+        public String getProject()
+        {
+            return project;
+        }
+
+        /**
+         * @return Life cycle phase associated with the effort.
+         */
+        public String getLifeCycle()
+        {
+            return lifeCycle;
+        }
+
+        /**
+         * @return Category of the effort.
+         */
+        public String getEffortCategory()
+        {
+            return effortCategory;
+        }
+
+        /**
+         * @return Deliverable the effort is spent on.
+         */
+        public String getDeliverable()
+        {
+            return deliverable;
+        }
+    }
+
+    //--------------------------------------------session methods--------------------------------------------------------------
+
+    /**
+     * Starts timing an activity for a user. A user may have any number of activities open at once.
+     *
+     * @param userFile       The user's credential file; the effort is logged into that user's log.
+     * @param project        The project the effort is spent on.
+     * @param lifeCycle      The life cycle phase associated with the effort.
+     * @param effortCategory The category of the effort.
+     * @param deliverable    The deliverable the effort is spent on.
+     * @return The started activity; pass its id to stop() when the effort ends.
+     * @throws IOException If the user's sequence file cannot be read or written.
+     */
+    public static Activity start(Path userFile, String project, String lifeCycle, String effortCategory, String deliverable) throws IOException
+    {
+        int counter = EffortSequence.next(userFile); // Persistent sequence number, unique across restarts
+
+        long startMillis = System.currentTimeMillis(); // Wall-clock anchor of the effort
+        long startNanos = System.nanoTime(); // Monotonic clock reading used to measure the duration
+
+        Activity activity = new Activity(nextActivityId.incrementAndGet(), counter,
+                startMillis, startNanos, project, lifeCycle, effortCategory, deliverable);
+
+        // Creates the session on the user's first open activity
+        sessions.compute(userFile.toAbsolutePath(), (key, session) -> {
+            Session open = session != null ? session : new Session();
+            open.activities.put(activity.getId(), activity);
+            return open;
+        });
+        return activity;
+    }
+
+    /**
+     * Stops timing an activity and queues its effort record on the user's log writer, which adds it to the user's
+     * totals once it is on disk.
+     * Each activity can only be stopped once; if several callers stop the same activity, only one of them logs it.
+     *
+     * @param userFile   The user's credential file.
+     * @param activityId Identifier of the activity, from start().
+     * @return The duration of the effort in nanoseconds, or -1 if the activity is not open.
+     * @throws IOException If the user's log file cannot be opened.
+     */
+    public static long stop(Path userFile, long activityId) throws IOException
+    {
+        long endNanos = System.nanoTime();
+
+        // Removes the session with the user's last open activity
+        Activity[] stopped = new Activity[1];
+        Path key = userFile.toAbsolutePath();
+        sessions.computeIfPresent(key, (path, session) -> {
+            stopped[0] = session.activities.remove(activityId);
+            return session.activities.isEmpty() ? null : session;
+        });
+        Activity activity = stopped[0];
+        if (activity == null)
+        {
+            return -1;
+        }
+
+        long durationNanos = endNanos - activity.startNanos;
+        long endMillis = activity.startMillis + durationNanos / 1_000_000;
+        byte[] record = EffortRecord.encodeEffort(activity.counter, activity.startMillis, endMillis, durationNanos,
+                activity.lifeCycle, activity.effortCategory, activity.project, activity.deliverable);
+
+        EffortAggregates.logEffort(key, record, activity.startMillis, durationNanos,
+                activity.project, activity.lifeCycle, activity.effortCategory, activity.deliverable);
+        return durationNanos;
+    }
+
+    /**
+     * Retrieves the activities a user currently has open.
+     *
+     * @param userFile The user's credential file.
+     * @return A snapshot of the user's open activities.
+     */
+    public static List<Activity> getActivities(Path userFile)
+    {
+        Session session = sessions.get(userFile.toAbsolutePath());
+        return session == null ? new ArrayList<>() : new ArrayList<>(session.activities.values());
+    }
+}
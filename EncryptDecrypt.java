@@ -11,13 +11,28 @@ package EffortLogger;
 
 
 import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.*;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import java.io.File;
 
 public class EncryptDecrypt {
 
+    // Caesar cipher key
+    static final int CAESAR_KEY = 10;
+
+    // Cipher the application's files are encrypted with
+    private static final StreamCipher FILE_CIPHER = new CaesarStreamCipher(CAESAR_KEY);
+
+    // Strings up to this length are transformed in a reused per-thread buffer
+    private static final int SCRATCH_SIZE = 4096;
+    private static final ThreadLocal<char[]> scratchChars = ThreadLocal.withInitial(() -> new char[SCRATCH_SIZE]);
+
     //--------------------------------------------encryption methods--------------------------------------------------------------
 
 	/**
@@ -36,9 +51,6 @@ public class EncryptDecrypt {
         // Construct the full file path
         Path originalFilePath = currentWorkingDirectory.resolve(fileName);
 
-        // Caesar cipher key
-        int key = 10;
-
         // Check if the file exists
         if (!Files.exists(originalFilePath)) 
         {
@@ -46,43 +58,22 @@ public class EncryptDecrypt {
             return;
         }
 
-        // Read the content of the file
-        String unencryptedFileContent = Files.readString(originalFilePath);
-        
-        // Encrypt the content and store the result in a new file
-        encryptionAlgorithm(unencryptedFileContent, key, originalFilePath, fileType, newFolder);
+        // Stream the encrypted content into the encrypted file, appending if it exists
+        Path encryptedFilePath = resolveEncryptedFilePath(originalFilePath, fileType, newFolder);
+        transformFile(originalFilePath, encryptedFilePath, FILE_CIPHER, true, StandardOpenOption.APPEND);
     }
 
     /**
-     * Performs the actual Caesar cipher encryption.
+     * Encrypts a file of any size into another file in constant memory, replacing the target if it exists.
      *
-     * @param fileContent      The content of the file to be encrypted.
-     * @param key              The key for the Caesar cipher.
-     * @param originalFilePath The path of the original file.
-     * @param fileType         The type of the file being encrypted.
-     * @param newFolder        Flag to determine if a new folder should be created.
-     * @throws IOException If an I/O error occurs.
+     * @param source The file to encrypt.
+     * @param target The file to write the encrypted data to.
+     * @param cipher The cipher to encrypt with.
+     * @throws IOException If an I/O error occurs or the data cannot be encrypted.
      */
-    private static void encryptionAlgorithm(String fileContent, int key, Path originalFilePath, String fileType, boolean newFolder) throws IOException 
+    public static void encryptFile(Path source, Path target, StreamCipher cipher) throws IOException 
     {
-        // Convert the file content to a character array
-        char[] unencryptedFileContent = fileContent.toCharArray();
-        
-        // StringBuilder to store the encrypted content
-        StringBuilder encryptedFile = new StringBuilder();
-
-        // Loop through each character in the array and apply Caesar cipher encryption
-        for (int i = 0; i < unencryptedFileContent.length; i++) 
-        {
-            char encryptedChar = (char) (unencryptedFileContent[i] + key);
-            encryptedFile.append(encryptedChar);
-        }
-
-        // Convert the StringBuilder to a string
-        String encryptedContent = encryptedFile.toString();
-        
-        // Store the encrypted content in a new file
-        storeEncryptedFile(encryptedContent, originalFilePath, fileType, newFolder);
+        transformFile(source, target, cipher, true, StandardOpenOption.TRUNCATE_EXISTING);
     }
 
     /**
@@ -95,6 +86,22 @@ public class EncryptDecrypt {
      * @throws IOException If an I/O error occurs.
      */
     public static void storeEncryptedFile(String encryptedContent, Path originalFilePath, String fileType, boolean newFolder) throws IOException 
+    {
+        // Write the encrypted content to the new file, appending if it exists
+        Path encryptedFilePath = resolveEncryptedFilePath(originalFilePath, fileType, newFolder);
+        Files.writeString(encryptedFilePath, encryptedContent, StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+    }
+
+    /**
+     * Determines where the encrypted form of a file is stored, creating its folder if needed.
+     *
+     * @param originalFilePath The path of the original file.
+     * @param fileType         The type of the file being encrypted.
+     * @param newFolder        Flag indicating whether to create a new folder.
+     * @return The path of the encrypted file.
+     * @throws IOException If the folder cannot be created.
+     */
+    private static Path resolveEncryptedFilePath(Path originalFilePath, String fileType, boolean newFolder) throws IOException 
     {
         Path folderPath;
 
@@ -109,18 +116,24 @@ public class EncryptDecrypt {
             folderPath = originalFilePath.getParent();
         }
 
-        // Construct the file name for the encrypted file
-        String originalFileName = originalFilePath.getFileName().toString();
-        if (!originalFilePath.toString().contains("_encrypted.txt")) 
-        {
-            originalFileName = originalFileName.replaceFirst("[.][^.]+$", "") + "_encrypted.txt";
-        }
-
         // Resolve the path for the new encrypted file
-        Path encryptedFilePath = folderPath.resolve(originalFileName);
+        return folderPath.resolve(getEncryptedFileName(originalFilePath.getFileName().toString()));
+    }
 
-        // Write the encrypted content to the new file, appending if it exists
-        Files.writeString(encryptedFilePath, encryptedContent, StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+    /**
+     * Names the encrypted form of a file: its name without the extension followed by "_encrypted.txt".
+     * Names of files that are already encrypted are kept.
+     *
+     * @param fileName Name of the original file.
+     * @return Name of the encrypted file.
+     */
+    static String getEncryptedFileName(String fileName) 
+    {
+        if (fileName.contains("_encrypted.txt")) 
+        {
+            return fileName;
+        }
+        return fileName.replaceFirst("[.][^.]+$", "") + "_encrypted.txt";
     }
 
     //--------------------------------------------decryption methods--------------------------------------------------------------
@@ -140,9 +153,6 @@ public class EncryptDecrypt {
         // Resolve the path to the file to be decrypted
         Path originalFilePath = currentWorkingDirectory.resolve(fileFolder).resolve(fileName);
 
-        // Key for the Caesar cipher
-        int key = 10;
-
         // Check if the file exists
         if (!Files.exists(originalFilePath)) 
         {
@@ -150,64 +160,60 @@ public class EncryptDecrypt {
             return;
         }
 
-        // Read the encrypted content of the file
-        String encryptedFileContent = Files.readString(originalFilePath);
-        
-        // Decrypt the content and store the result in a new file
-        decryptionAlgorithm(encryptedFileContent, key, originalFilePath);
+        // Construct the file name for the decrypted file, replacing the original file name with a ".txt" extension
+        String originalFileName = originalFilePath.getFileName().toString();
+        String decryptedFileName = originalFileName.replaceFirst("[_][^_]+$", "") + ".txt";
+
+        // Stream the decrypted content into the new file, overwriting if it exists
+        transformFile(originalFilePath, Path.of(decryptedFileName), FILE_CIPHER, false, StandardOpenOption.TRUNCATE_EXISTING);
     }
 
     /**
-     * Performs the actual Caesar cipher decryption.
+     * Decrypts a file of any size into another file in constant memory, replacing the target if it exists.
      *
-     * @param fileContent      The content of the file to be decrypted.
-     * @param key              The key for the Caesar cipher.
-     * @param originalFilePath The path of the original file.
-     * @throws IOException If an I/O error occurs.
+     * @param source The file to decrypt.
+     * @param target The file to write the decrypted data to.
+     * @param cipher The cipher the source was encrypted with.
+     * @throws IOException If an I/O error occurs or the data is not valid for the cipher.
      */
-    private static void decryptionAlgorithm(String fileContent, int key, Path originalFilePath) throws IOException 
+    public static void decryptFile(Path source, Path target, StreamCipher cipher) throws IOException 
     {
-        // Convert the file content to a character array
-        char[] encryptedFileContent = fileContent.toCharArray();
-        
-        // StringBuilder to store the decrypted content
-        StringBuilder decryptedFile = new StringBuilder();
-
-        // Loop through each character in the array and apply Caesar cipher decryption
-        for (int i = 0; i < encryptedFileContent.length; i++) 
-        {
-            char decryptedChar = (char) (encryptedFileContent[i] - key);
-            decryptedFile.append(decryptedChar);
-        }
-
-        // Convert the StringBuilder to a string
-        String decryptedContent = decryptedFile.toString();
-        
-        // Store the decrypted content in a new file
-        storeDecryptedFile(decryptedContent, originalFilePath);
+        transformFile(source, target, cipher, false, StandardOpenOption.TRUNCATE_EXISTING);
     }
 
     /**
-     * Stores the decrypted content in a new file, replacing the original file name with a ".txt" extension.
+     * Streams a file through a cipher into another file.
      *
-     * @param decryptedContent The decrypted content to be written to the file.
-     * @param originalFilePath The path of the original encrypted file.
-     * @throws IOException If an I/O error occurs.
+     * @param source    The file to read.
+     * @param target    The file to write; it is created if it does not exist.
+     * @param cipher    The cipher to apply.
+     * @param encrypt   true to encrypt, false to decrypt.
+     * @param writeMode APPEND to add to the target, or TRUNCATE_EXISTING to replace it.
+     * @throws IOException If an I/O error occurs or the cipher rejects the data.
      */
-    private static void storeDecryptedFile(String decryptedContent, Path originalFilePath) throws IOException 
+    private static void transformFile(Path source, Path target, StreamCipher cipher, boolean encrypt, StandardOpenOption writeMode) throws IOException 
     {
-        // Construct the file name for the decrypted file
-        String originalFileName = originalFilePath.getFileName().toString();
-        String decryptedFileName = originalFileName.replaceFirst("[_][^_]+$", "") + ".txt";
-
-        // Write the decrypted content to the new file, overwriting if it exists
-        Files.writeString(Path.of(decryptedFileName), decryptedContent, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING);
+        try (FileChannel in = FileChannel.open(source, StandardOpenOption.READ);
+             FileChannel out = FileChannel.open(target, StandardOpenOption.CREATE, StandardOpenOption.WRITE, writeMode)) 
+        {
+            if (encrypt) 
+            {
+                cipher.encrypt(in, out);
+            } 
+            else 
+            {
+                cipher.decrypt(in, out);
+            }
+        }
     }
 
     //--------------------------------------------utility methods--------------------------------------------------------------
 
     /**
-     * Searches for user files containing the specified username and password.
+     * Searches for the user file containing the specified username and password.
+     * The lookup goes through the persistent user index, which verifies the password against a salted hash once the
+     * user has logged in before, and otherwise reads only the matching user's credential header.
+     * Callers that log in repeatedly can use CredentialVerifier.login() and verifyToken() instead.
      *
      * @param userName The username to search for.
      * @param password The password to search for.
@@ -226,43 +232,19 @@ public class EncryptDecrypt {
             return null;
         }
 
-        // List all files in the directory
-        File[] listOfFiles = folder.listFiles();
-
-        // Check if the folder is empty or if an I/O error occurred
-        if (listOfFiles == null) 
-        {
-            return null;
-        }
-
-        // Encrypt the username and password for comparison
-        String encryptedUserName = encryptString("Username: " + userName + "\r");
-        String encryptedPassword = encryptString("Password: " + password);
-
-        // Search for a file containing the encrypted username and password
-        for (File file : listOfFiles) 
-        {
-            if (file.isFile()) 
-            {
-                String fileContent = Files.readString(file.toPath());
-                if (fileContent.contains(encryptedUserName) && fileContent.contains(encryptedPassword)) 
-                {
-                    return file.toPath();
-                }
-            }
-        }
-
-        return null;
+        // Look the user up in the index and verify the password
+        return UserIndex.findUserFile(userName, password);
     }
 
     /**
      * Searches for Planning Poker files that contain the specified search term.
+     * Matching files are returned as in-memory results that decrypt their content on demand; nothing is written to disk.
      *
      * @param searchTerm The term to search for within the Planning Poker files.
-     * @return An array of Files that contain the encrypted search term.
+     * @return The archive files that contain the encrypted search term.
      * @throws IOException If an I/O error occurs.
      */
-    public static File[] searchPlanningPokerFiles(String searchTerm) throws IOException 
+    public static List<PlanningPokerSearchResult> searchPlanningPokerFiles(String searchTerm) throws IOException 
     {
         // Define the path to the encrypted Planning Poker data directory
         Path encryptedFolderPath = Paths.get(System.getProperty("user.dir"), "planning_poker_data_encrypted");
@@ -271,39 +253,38 @@ public class EncryptDecrypt {
         // List all files in the directory
         File[] listOfEncryptedFiles = folder.listFiles();
 
+        List<PlanningPokerSearchResult> filesContainingSearchTerm = new ArrayList<>();
+
         // Check for an empty folder or I/O error
         if (listOfEncryptedFiles == null) 
         {
-            return new File[0];
+            return filesContainingSearchTerm;
         }
 
-        List<File> decryptedFilesContainingSearchTerm = new ArrayList<>();
-        String encryptedSearchTerm = encryptString(searchTerm);
+        // Only archived backlog items are searched; this skips decrypted copies left behind by older versions
+        File[] archivedFiles = Arrays.stream(listOfEncryptedFiles)
+                .filter(file -> isArchivedBacklogFile(file.getName()))
+                .toArray(File[]::new);
 
-        // Search for files containing the encrypted search term
-        for (File encryptedFile : listOfEncryptedFiles) 
+        // Scan the files in parallel for the encrypted search term
+        byte[] encryptedSearchTerm = encryptString(searchTerm).getBytes(StandardCharsets.UTF_8);
+        for (Path matchingFile : ParallelFileScanner.findAll(archivedFiles, encryptedSearchTerm)) 
         {
-            if (encryptedFile.isFile()) 
-            {
-                String encryptedContent = Files.readString(encryptedFile.toPath());
-                if (encryptedContent.contains(encryptedSearchTerm)) 
-                {
-                    // Decrypt the content of the file
-                    String decryptedContent = decryptString(encryptedContent);
-
-                    // Create a temporary decrypted file
-                    String decryptedFileName = encryptedFile.getName().replace("_encrypted.txt", "(copy)_unencrypted.txt");
-                    File tempDecryptedFile = new File(encryptedFolderPath.toString(), decryptedFileName);
-
-                    // Write the decrypted content to the temporary file
-                    Files.writeString(tempDecryptedFile.toPath(), decryptedContent);
-
-                    decryptedFilesContainingSearchTerm.add(tempDecryptedFile);
-                }
-            }
+            filesContainingSearchTerm.add(new PlanningPokerSearchResult(matchingFile, searchTerm));
         }
 
-        return decryptedFilesContainingSearchTerm.toArray(new File[0]);
+        return filesContainingSearchTerm;
+    }
+
+    /**
+     * Checks whether a file in the Planning Poker directory is an encrypted backlog item.
+     *
+     * @param fileName Name of the file.
+     * @return true for encrypted backlog item files, false for anything else.
+     */
+    static boolean isArchivedBacklogFile(String fileName) 
+    {
+        return fileName.endsWith("_encrypted.txt") && !fileName.contains("(copy)_unencrypted");
     }
 
     /**
@@ -314,51 +295,233 @@ public class EncryptDecrypt {
      */
     public static String encryptString(String info) 
     {
-        // Convert the string to a character array
-        char[] unencryptedString = info.toCharArray();
+        return shiftString(info, CAESAR_KEY);
+    }
 
-        // StringBuilder to store the encrypted string
-        StringBuilder encryptedString = new StringBuilder();
+    /**
+     * Decrypts a given string using the Caesar cipher.
+     *
+     * @param encryptedInfo The string to be decrypted.
+     * @return The decrypted string.
+     */
+    public static String decryptString(String encryptedInfo) 
+    {
+        return shiftString(encryptedInfo, -CAESAR_KEY);
+    }
+
+    /**
+     * Shifts every character of a string. Short strings are shifted in a reused per-thread buffer,
+     * so the only allocation is the resulting string.
+     *
+     * @param info  The string to shift.
+     * @param shift The amount to add to each character.
+     * @return The shifted string.
+     */
+    private static String shiftString(String info, int shift) 
+    {
+        int length = info.length();
+        char[] chars = length <= SCRATCH_SIZE ? scratchChars.get() : new char[length];
+
+        // Copy the characters out, shift them in place, and build the result from the shifted range
+        info.getChars(0, length, chars, 0);
+        shiftChars(chars, 0, length, shift);
+        return new String(chars, 0, length);
+    }
 
-        // Caesar cipher key
-        int key = 10;
+    //--------------------------------------------in-place transform methods--------------------------------------------------------------
 
-        // Encrypt each character and append to the StringBuilder
-        for (int i = 0; i < unencryptedString.length; i++) 
+    /**
+     * Encrypts a range of a character array in place.
+     *
+     * @param chars  The characters to encrypt.
+     * @param offset Index of the first character to encrypt.
+     * @param length Number of characters to encrypt.
+     */
+    public static void encryptChars(char[] chars, int offset, int length) 
+    {
+        shiftChars(chars, offset, length, CAESAR_KEY);
+    }
+
+    /**
+     * Decrypts a range of a character array in place.
+     *
+     * @param chars  The characters to decrypt.
+     * @param offset Index of the first character to decrypt.
+     * @param length Number of characters to decrypt.
+     */
+    public static void decryptChars(char[] chars, int offset, int length) 
+    {
+        shiftChars(chars, offset, length, -CAESAR_KEY);
+    }
+
+    /**
+     * Encrypts the remaining characters of a buffer in place, leaving its position unchanged.
+     *
+     * @param buffer The characters to encrypt.
+     */
+    public static void encrypt(CharBuffer buffer) 
+    {
+        shiftBuffer(buffer, CAESAR_KEY);
+    }
+
+    /**
+     * Decrypts the remaining characters of a buffer in place, leaving its position unchanged.
+     *
+     * @param buffer The characters to decrypt.
+     */
+    public static void decrypt(CharBuffer buffer) 
+    {
+        shiftBuffer(buffer, -CAESAR_KEY);
+    }
+
+    /**
+     * Encrypts text and writes it as UTF-8 straight into a byte buffer, without building any intermediate string.
+     * The bytes written are the same as encryptString(text).getBytes(UTF_8).
+     *
+     * @param text The text to encrypt.
+     * @param out  The buffer to write the encrypted UTF-8 bytes into.
+     * @throws java.nio.BufferOverflowException If the buffer does not have room for the encoded text.
+     */
+    public static void encodeEncrypted(CharSequence text, ByteBuffer out) 
+    {
+        int length = text.length();
+        for (int i = 0; i < length; i++) 
         {
-            char encryptedChar = (char) (unencryptedString[i] + key);
-            encryptedString.append(encryptedChar);
+            char c = (char) (text.charAt(i) + CAESAR_KEY);
+
+            if (c < 0x80) 
+            {
+                out.put((byte) c);
+            } 
+            else if (c < 0x800) 
+            {
+                out.put((byte) (0xC0 | (c >> 6)));
+                out.put((byte) (0x80 | (c & 0x3F)));
+            } 
+            else if (Character.isHighSurrogate(c) && i + 1 < length && Character.isLowSurrogate((char) (text.charAt(i + 1) + CAESAR_KEY))) 
+            {
+                int codePoint = Character.toCodePoint(c, (char) (text.charAt(++i) + CAESAR_KEY));
+                out.put((byte) (0xF0 | (codePoint >> 18)));
+                out.put((byte) (0x80 | ((codePoint >> 12) & 0x3F)));
+                out.put((byte) (0x80 | ((codePoint >> 6) & 0x3F)));
+                out.put((byte) (0x80 | (codePoint & 0x3F)));
+            } 
+            else if (Character.isSurrogate(c)) 
+            {
+                // Unpaired surrogates are replaced, as String.getBytes does
+                out.put((byte) '?');
+            } 
+            else 
+            {
+                out.put((byte) (0xE0 | (c >> 12)));
+                out.put((byte) (0x80 | ((c >> 6) & 0x3F)));
+                out.put((byte) (0x80 | (c & 0x3F)));
+            }
         }
+    }
+
+    /**
+     * Computes how many bytes encodeEncrypted writes for the given text.
+     *
+     * @param text The text to be encrypted.
+     * @return The number of encrypted UTF-8 bytes.
+     */
+    public static int encryptedLength(CharSequence text) 
+    {
+        int length = text.length();
+        int bytes = 0;
+        for (int i = 0; i < length; i++) 
+        {
+            char c = (char) (text.charAt(i) + CAESAR_KEY);
 
-        // Return the encrypted string
-        return encryptedString.toString();
+            if (c < 0x80) 
+            {
+                bytes += 1;
+            } 
+            else if (c < 0x800) 
+            {
+                bytes += 2;
+            } 
+            else if (Character.isHighSurrogate(c) && i + 1 < length && Character.isLowSurrogate((char) (text.charAt(i + 1) + CAESAR_KEY))) 
+            {
+                bytes += 4;
+                i++;
+            } 
+            else if (Character.isSurrogate(c)) 
+            {
+                bytes += 1;
+            } 
+            else 
+            {
+                bytes += 3;
+            }
+        }
+        return bytes;
     }
 
     /**
-     * Decrypts a given string using the Caesar cipher.
+     * Decodes encrypted UTF-8 bytes from a buffer and decrypts them, without changing the buffer's position.
+     * ASCII content is decoded and decrypted in a single pass into a reused per-thread buffer.
      *
-     * @param encryptedInfo The string to be decrypted.
+     * @param in       The buffer holding the encrypted bytes.
+     * @param position Index of the first byte.
+     * @param length   Number of bytes.
      * @return The decrypted string.
      */
-    public static String decryptString(String encryptedInfo) 
+    public static String decodeDecrypted(ByteBuffer in, int position, int length) 
     {
-        // Convert the string to a character array
-        char[] encryptedString = encryptedInfo.toCharArray();
+        char[] chars = length <= SCRATCH_SIZE ? scratchChars.get() : new char[length];
 
-        // StringBuilder to store the decrypted string
-        StringBuilder decryptedString = new StringBuilder();
+        for (int i = 0; i < length; i++) 
+        {
+            byte b = in.get(position + i);
+            if (b < 0) 
+            {
+                // Multi-byte characters: fall back to the full UTF-8 decoder
+                byte[] bytes = new byte[length];
+                in.get(position, bytes, 0, length);
+                return decryptString(new String(bytes, StandardCharsets.UTF_8));
+            }
+            chars[i] = (char) (b - CAESAR_KEY);
+        }
 
-        // Caesar cipher key
-        int key = 10;
+        return new String(chars, 0, length);
+    }
 
-        // Decrypt each character and append to the StringBuilder
-        for (int i = 0; i < encryptedString.length; i++) 
+    /**
+     * Shifts the remaining characters of a buffer in place, leaving its position unchanged.
+     *
+     * @param buffer The characters to shift.
+     * @param shift  The amount to add to each character.
+     */
+    private static void shiftBuffer(CharBuffer buffer, int shift) 
+    {
+        if (buffer.hasArray()) 
         {
-            char decryptedChar = (char) (encryptedString[i] - key);
-            decryptedString.append(decryptedChar);
+            shiftChars(buffer.array(), buffer.arrayOffset() + buffer.position(), buffer.remaining(), shift);
+            return;
         }
 
-        // Return the decrypted string
-        return decryptedString.toString();
+        for (int i = buffer.position(); i < buffer.limit(); i++) 
+        {
+            buffer.put(i, (char) (buffer.get(i) + shift));
+        }
+    }
+
+    /**
+     * Shifts a range of a character array in place. The loop has no branches or calls, so the JIT can vectorize it.
+     *
+     * @param chars  The characters to shift.
+     * @param offset Index of the first character.
+     * @param length Number of characters.
+     * @param shift  The amount to add to each character.
+     */
+    private static void shiftChars(char[] chars, int offset, int length, int shift) 
+    {
+        int end = offset + length;
+        for (int i = offset; i < end; i++) 
+        {
+            chars[i] = (char) (chars[i] + shift);
+        }
     }
 }
@@ -0,0 +1,401 @@
+package EffortLogger;
+
+//
+//File Name: EstimateSuggester.java
+//Creator: Team Th15
+//Last Updated: 10/18/2026
+//Project: CSE360 Team Th15 EFFORTLOGGER V2
+//Description: 	This file suggests an estimate for a new backlog item from the most similar items finalized before.
+//				Similarity is the cosine of TF-IDF vectors over the words of the backlog item name, project, language,
+//				and keywords, the same words the archive index keeps. The vectors are held in an in-memory inverted
+//				index built once from the archive index, so a suggestion only visits the items that share a word with
+//				the new one instead of decrypting the archive. The index is rebuilt when the archive index changes.
+
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+
+public class EstimateSuggester {
+
+    // Number of similar items a suggestion is based on by default
+    public static final int DEFAULT_NEIGHBORS = 5;
+
+    // Vector index built from the archive index, replaced as a whole when the archive changes
+    private static volatile VectorIndex index;
+
+    /**
+     * An item finalized before that a suggestion is based on.
+     */
+    public static final class Neighbor
+    {
+        private final String name;
+        private final double similarity;
+        private final double estimate;
+
+        private Neighbor(String name, double similarity, double estimate)
+        {
+            this.name = name;
+            this.similarity = similarity;
+            this.estimate = estimate;
+        }
+
+        /**
+         * @return Name of the backlog item.
+         */
+        public String getName()
+        {
+            return name;
+        }
+
+        /**
+         * @return Cosine similarity to the new item, between 0 and 1.
+         */
+        public double getSimilarity()
+        {
+            return similarity;
+        }
+
+        /**
+         * @return The average estimate the item was finalized with.
+         */
+        public double getEstimate()
+        {
+            return estimate;
+        }
+    }
+
+    /**
+     * A suggested estimate: the average of the neighbors' estimates weighted by similarity, and the closest card.
+     */
+    public static final class Suggestion
+    {
+        private final double estimate;
+        private final List<Neighbor> neighbors;
+
+        private Suggestion(double estimate, List<Neighbor> neighbors)
+        {
+            this.estimate = estimate;
+            this.neighbors = neighbors;
+        }
+
+        /**
+         * @return The weighted estimate.
+         */
+        public double getEstimate()
+        {
+            return estimate;
+        }
+
+        /**
+         * @return The card of the deck closest to the weighted estimate.
+         */
+        public int getSuggestedCard()
+        {
+            int closest = VoteAccumulator.DECK[0];
+            for (int card : VoteAccumulator.DECK)
+            {
+                if (Math.abs(card - estimate) < Math.abs(closest - estimate))
+                {
+                    closest = card;
+                }
+            }
+            return closest;
+        }
+
+        /**
+         * @return The similar items, most similar first.
+         */
+        public List<Neighbor> getNeighbors()
+        {
+            return neighbors;
+        }
+
+        /**
+         * Formats the suggestion for display, e.g. "Suggested: 5 (4.60 from Login_Page 82%, Signup_Form 61%)".
+         *
+         * @return The formatted suggestion.
+         */
+        @Override
+        public String toString()
+        {
+            StringBuilder text = new StringBuilder();
+            text.append(String.format("Suggested: %d (%.2f from ", getSuggestedCard(), estimate));
+            for (int i = 0; i < neighbors.size(); i++)
+            {
+                if (i > 0)
+                {
+                    text.append(", ");
+                }
+                text.append(neighbors.get(i).getName()).append(' ').append(Math.round(neighbors.get(i).getSimilarity() * 100)).append('%');
+            }
+            return text.append(')').toString();
+        }
+    }
+
+    /**
+     * Inverted index of the TF-IDF vectors of the estimated items. Words are weighted by inverse document frequency
+     * only, since each item holds a word at most once.
+     */
+    private static final class VectorIndex
+    {
+        final long version;
+        final String[] names;
+        final double[] estimates;
+        final float[] norms;
+        final Map<String, Integer> wordIds;
+        final int[][] postings; // Items holding each word
+        final float[] idf;
+        final float unknownWordIdf; // Weight of a word no estimated item has, the largest weight there is
+
+        VectorIndex(long version, String[] names, double[] estimates, float[] norms, Map<String, Integer> wordIds,
+                    int[][] postings, float[] idf, float unknownWordIdf)
+        {
+            this.version = version;
+            this.names = names;
+            this.estimates = estimates;
+            this.norms = norms;
+            this.wordIds = wordIds;
+            this.postings = postings;
+            this.idf = idf;
+            this.unknownWordIdf = unknownWordIdf;
+        }
+    }
+
+    //--------------------------------------------suggestion methods--------------------------------------------------------------
+
+    /**
+     * Builds the vector index on a background thread, so the first suggestion does not wait for it.
+     */
+    public static void preload()
+    {
+        CompletableFuture.runAsync(() -> {
+            try
+            {
+                getIndex();
+            }
+            catch (IOException e)
+            {
+                e.printStackTrace();
+            }
+        });
+    }
+
+    /**
+     * Suggests an estimate for a new backlog item from the most similar items finalized before.
+     *
+     * @param backlogItemName     Name of the backlog item.
+     * @param projectName         Name of the project.
+     * @param programmingLanguage Programming language used in the project.
+     * @param keywords            Keywords associated with the project or backlog item; may be null.
+     * @param neighborCount       Largest number of similar items to base the suggestion on.
+     * @return The suggestion, or null if no estimated item shares a word with the new one.
+     * @throws IOException If the archive index cannot be read.
+     * @throws IllegalArgumentException If neighborCount is less than 1.
+     */
+    public static Suggestion suggest(String backlogItemName, String projectName, String programmingLanguage,
+                                     String keywords, int neighborCount) throws IOException
+    {
+        Set<String> words = new LinkedHashSet<>();
+        for (String field : new String[]{backlogItemName, projectName, programmingLanguage, keywords})
+        {
+            if (field != null)
+            {
+                words.addAll(PlanningPokerIndex.tokenize(field));
+            }
+        }
+        return suggest(words, neighborCount);
+    }
+
+    /**
+     * Suggests an estimate for an item with the given words.
+     *
+     * @param words         The words of the new item, lower-case.
+     * @param neighborCount Largest number of similar items to base the suggestion on.
+     * @return The suggestion, or null if no estimated item shares a word with the new one.
+     * @throws IOException If the archive index cannot be read.
+     * @throws IllegalArgumentException If neighborCount is less than 1.
+     */
+    static Suggestion suggest(Set<String> words, int neighborCount) throws IOException
+    {
+        if (neighborCount < 1)
+        {
+            throw new IllegalArgumentException("Neighbor count must be at least 1: " + neighborCount);
+        }
+
+        VectorIndex vectors = getIndex();
+
+        // Accumulate the dot products of the query with every item sharing a word, remembering which items were touched
+        float[] scores = new float[vectors.names.length];
+        int[] touched = new int[16];
+        int touchedCount = 0;
+        double queryNormSquared = 0;
+        for (String word : words)
+        {
+            Integer wordId = vectors.wordIds.get(word);
+            if (wordId == null)
+            {
+                // Words no estimated item has add nothing to any dot product, but still make the query less similar
+                queryNormSquared += vectors.unknownWordIdf * vectors.unknownWordIdf;
+                continue;
+            }
+
+            float weight = vectors.idf[wordId];
+            queryNormSquared += weight * weight;
+            for (int item : vectors.postings[wordId])
+            {
+                if (scores[item] == 0)
+                {
+                    if (touchedCount == touched.length)
+                    {
+                        touched = Arrays.copyOf(touched, touchedCount * 2);
+                    }
+                    touched[touchedCount++] = item;
+                }
+                scores[item] += weight * weight;
+            }
+        }
+        if (touchedCount == 0)
+        {
+            return null;
+        }
+
+        // Keep the most similar items in a min-heap of fixed size, so its head is the one to replace
+        double queryNorm = Math.sqrt(queryNormSquared);
+        PriorityQueue<Neighbor> nearest = new PriorityQueue<>(neighborCount + 1, Comparator.comparingDouble(Neighbor::getSimilarity));
+        for (int i = 0; i < touchedCount; i++)
+        {
+            int item = touched[i];
+            double similarity = scores[item] / (queryNorm * vectors.norms[item]);
+            if (nearest.size() < neighborCount)
+            {
+                nearest.add(new Neighbor(vectors.names[item], similarity, vectors.estimates[item]));
+            }
+            else if (similarity > nearest.peek().getSimilarity())
+            {
+                nearest.poll();
+                nearest.add(new Neighbor(vectors.names[item], similarity, vectors.estimates[item]));
+            }
+        }
+
+        // Weight each neighbor's estimate by its similarity
+        List<Neighbor> neighbors = new ArrayList<>(nearest);
+        neighbors.sort(Comparator.comparingDouble(Neighbor::getSimilarity).reversed());
+        double weightedSum = 0;
+        double weightTotal = 0;
+        for (Neighbor neighbor : neighbors)
+        {
+            weightedSum += neighbor.getSimilarity() * neighbor.getEstimate();
+            weightTotal += neighbor.getSimilarity();
+        }
+        return new Suggestion(weightedSum / weightTotal, neighbors);
+    }
+
+    //--------------------------------------------index methods--------------------------------------------------------------
+
+    /**
+     * Retrieves the vector index, rebuilding it if the archive index changed since it was built.
+     *
+     * @return The current vector index.
+     * @throws IOException If the archive index cannot be read.
+     */
+    private static VectorIndex getIndex() throws IOException
+    {
+        VectorIndex current = index;
+        if (current != null && current.version == PlanningPokerIndex.getVersion())
+        {
+            return current;
+        }
+
+        synchronized (EstimateSuggester.class)
+        {
+            current = index;
+            if (current == null || current.version != PlanningPokerIndex.getVersion())
+            {
+                current = build();
+                index = current;
+            }
+            return current;
+        }
+    }
+
+    /**
+     * Builds the vector index from the items of the archive index that have an estimate.
+     *
+     * @return The new vector index.
+     * @throws IOException If the archive index cannot be read.
+     */
+    private static VectorIndex build() throws IOException
+    {
+        List<String> names = new ArrayList<>();
+        List<Double> estimates = new ArrayList<>();
+        Map<String, Integer> wordIds = new HashMap<>();
+        List<int[]> itemWords = new ArrayList<>();
+        List<Integer> documentFrequency = new ArrayList<>();
+
+        // Number the words and items; items never estimated cannot contribute to a suggestion and are left out
+        long version = PlanningPokerIndex.visitItems((fileName, words, estimate) -> {
+            if (Double.isNaN(estimate) || words.isEmpty())
+            {
+                return;
+            }
+
+            int[] ids = new int[words.size()];
+            int i = 0;
+            for (String word : words)
+            {
+                Integer wordId = wordIds.get(word);
+                if (wordId == null)
+                {
+                    wordId = wordIds.size();
+                    wordIds.put(word, wordId);
+                    documentFrequency.add(0);
+                }
+                documentFrequency.set(wordId, documentFrequency.get(wordId) + 1);
+                ids[i++] = wordId;
+            }
+            names.add(fileName.replace("_encrypted.txt", ""));
+            estimates.add(estimate);
+            itemWords.add(ids);
+        });
+
+        // Rare words say more about an item than common ones
+        int itemCount = names.size();
+        float[] idf = new float[wordIds.size()];
+        int[][] postings = new int[wordIds.size()][];
+        for (int wordId = 0; wordId < idf.length; wordId++)
+        {
+            int frequency = documentFrequency.get(wordId);
+            idf[wordId] = (float) (Math.log((itemCount + 1.0) / (frequency + 1.0)) + 1.0);
+            postings[wordId] = new int[frequency];
+        }
+
+        // Fill the postings in item order and compute the length of each item's vector
+        int[] filled = new int[idf.length];
+        float[] norms = new float[itemCount];
+        double[] estimateValues = new double[itemCount];
+        for (int item = 0; item < itemCount; item++)
+        {
+            double normSquared = 0;
+            for (int wordId : itemWords.get(item))
+            {
+                postings[wordId][filled[wordId]++] = item;
+                normSquared += idf[wordId] * idf[wordId];
+            }
+            norms[item] = (float) Math.sqrt(normSquared);
+            estimateValues[item] = estimates.get(item);
+        }
+
+        float unknownWordIdf = (float) (Math.log(itemCount + 1.0) + 1.0);
+        return new VectorIndex(version, names.toArray(new String[0]), estimateValues, norms, wordIds, postings, idf,
+                unknownWordIdf);
+    }
+}
@@ -0,0 +1,289 @@
+package EffortLogger;
+
+//
+//File Name: ParallelFileScanner.java
+//Creator: Team Th15
+//Last Updated: 10/18/2026
+//Project: CSE360 Team Th15 EFFORTLOGGER V2
+//Description: 	This file contains the scan engine used by the EncryptDecrypt search functions while the archives are flat
+//				directories of files. Each file is read into a heap buffer, in windows for large files, and searched for the
+//				already encrypted search term with the Boyer-Moore-Horspool algorithm. Files are not memory-mapped, because
+//				a mapping keeps the file open until it is garbage collected, and on Windows the file cannot be deleted or
+//				truncated until then. Files are spread across a ForkJoinPool with a configurable parallelism level.
+
+
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.*;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+
+public class ParallelFileScanner {
+
+    // Largest part of a file read into memory at once; smaller files are read whole
+    private static final int MAX_WINDOW_SIZE = 1 << 20;
+
+    // Number of files scanned at the same time
+    private static int parallelism = Integer.getInteger("effortlogger.scanParallelism", Runtime.getRuntime().availableProcessors());
+
+    // Pool running the scans, created on first use
+    private static ForkJoinPool pool;
+
+    //--------------------------------------------configuration methods--------------------------------------------------------------
+
+    /**
+     * Sets how many files are scanned at the same time. Scans already running keep their old pool.
+     *
+     * @param parallelism The number of scanning threads, at least 1.
+     */
+    public static synchronized void setParallelism(int parallelism)
+    {
+        if (parallelism < 1)
+        {
+            throw new IllegalArgumentException("Parallelism must be at least 1: " + parallelism);
+        }
+
+        ParallelFileScanner.parallelism = parallelism;
+        if (pool != null)
+        {
+            pool.shutdown();
+            pool = null;
+        }
+    }
+
+    /**
+     * Retrieves the scanning pool, creating it on first use.
+     *
+     * @return The pool used for scans.
+     */
+    private static synchronized ForkJoinPool getPool()
+    {
+        if (pool == null)
+        {
+            pool = new ForkJoinPool(parallelism);
+        }
+        return pool;
+    }
+
+    //--------------------------------------------scan methods--------------------------------------------------------------
+
+    /**
+     * Finds every file that contains all of the given byte sequences.
+     *
+     * @param files   The files to scan; directories and unreadable entries are skipped.
+     * @param needles The byte sequences that must all appear in a file.
+     * @return The matching files, in no particular order.
+     * @throws IOException If an I/O error occurs.
+     */
+    public static List<Path> findAll(File[] files, byte[]... needles) throws IOException
+    {
+        Predicate<Path> containsAll = containsAll(needles);
+        return run(() -> Arrays.stream(files).parallel()
+                .filter(File::isFile)
+                .map(File::toPath)
+                .filter(containsAll)
+                .collect(Collectors.toList()));
+    }
+
+    /**
+     * Runs a parallel stream pipeline inside the scanning pool and unwraps I/O errors thrown by its stages.
+     *
+     * @param scan The pipeline to run.
+     * @return The pipeline's result.
+     * @throws IOException If a stage failed with an I/O error.
+     */
+    private static <T> T run(Callable<T> scan) throws IOException
+    {
+        try
+        {
+            return getPool().submit(scan).get();
+        }
+        catch (InterruptedException e)
+        {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while scanning files", e);
+        }
+        catch (ExecutionException e)
+        {
+            Throwable cause = e.getCause();
+            if (cause instanceof UncheckedIOException)
+            {
+                throw ((UncheckedIOException) cause).getCause();
+            }
+            if (cause instanceof RuntimeException)
+            {
+                throw (RuntimeException) cause;
+            }
+            throw new IOException("File scan failed", cause);
+        }
+    }
+
+    /**
+     * Builds a check that a file contains every one of the given byte sequences.
+     *
+     * @param needles The byte sequences to look for.
+     * @return The check; it throws UncheckedIOException if a file cannot be read.
+     */
+    private static Predicate<Path> containsAll(byte[]... needles)
+    {
+        int[][] skipTables = new int[needles.length][];
+        for (int i = 0; i < needles.length; i++)
+        {
+            skipTables[i] = skipTable(needles[i]);
+        }
+
+        return file -> {
+            try
+            {
+                for (int i = 0; i < needles.length; i++)
+                {
+                    if (indexOf(file, needles[i], skipTables[i]) < 0)
+                    {
+                        return false;
+                    }
+                }
+                return true;
+            }
+            catch (IOException e)
+            {
+                throw new UncheckedIOException(e);
+            }
+        };
+    }
+
+    //--------------------------------------------matching methods--------------------------------------------------------------
+
+    /**
+     * Finds the first occurrence of a byte sequence in a file by reading it into a heap buffer.
+     * Files larger than one window are searched in overlapping windows.
+     *
+     * @param file      The file to search.
+     * @param needle    The byte sequence to find.
+     * @param skipTable The needle's Boyer-Moore-Horspool skip table.
+     * @return Byte offset of the first occurrence, or -1 if there is none.
+     * @throws IOException If an I/O error occurs.
+     */
+    public static long indexOf(Path file, byte[] needle, int[] skipTable) throws IOException
+    {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ))
+        {
+            long fileSize = channel.size();
+            if (fileSize < needle.length)
+            {
+                return -1;
+            }
+
+            ByteBuffer window = ByteBuffer.allocate((int) Math.min(fileSize, Math.max(MAX_WINDOW_SIZE, needle.length)));
+            long windowStart = 0;
+
+            while (true)
+            {
+                window.clear();
+                readFully(channel, window, windowStart);
+                window.flip();
+
+                int match = indexOf(window, needle, skipTable);
+                if (match >= 0)
+                {
+                    return windowStart + match;
+                }
+
+                // Stop at the end of the file, including when it shrank while being read
+                if (window.limit() < window.capacity() || windowStart + window.limit() >= fileSize)
+                {
+                    break;
+                }
+
+                // Overlap the windows so a match across the boundary is not missed
+                windowStart += window.limit() - needle.length + 1;
+            }
+        }
+
+        return -1;
+    }
+
+    /**
+     * Reads from a file position until the buffer is full or the file ends.
+     *
+     * @param channel  The file to read.
+     * @param buffer   The buffer to fill.
+     * @param position The file position to start at.
+     * @throws IOException If an I/O error occurs.
+     */
+    private static void readFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException
+    {
+        while (buffer.hasRemaining())
+        {
+            int read = channel.read(buffer, position + buffer.position());
+            if (read < 0)
+            {
+                break;
+            }
+        }
+    }
+
+    /**
+     * Finds the first occurrence of a byte sequence in a buffer with the Boyer-Moore-Horspool algorithm.
+     *
+     * @param haystack  The buffer to search, from index 0 to its limit.
+     * @param needle    The byte sequence to find.
+     * @param skipTable The needle's skip table.
+     * @return Index of the first occurrence, or -1 if there is none.
+     */
+    static int indexOf(ByteBuffer haystack, byte[] needle, int[] skipTable)
+    {
+        int needleLength = needle.length;
+        if (needleLength == 0)
+        {
+            return 0;
+        }
+
+        int last = needleLength - 1;
+        int end = haystack.limit() - needleLength;
+        int i = 0;
+
+        while (i <= end)
+        {
+            // Compare from the end of the needle backwards
+            int j = last;
+            while (haystack.get(i + j) == needle[j])
+            {
+                if (j == 0)
+                {
+                    return i;
+                }
+                j--;
+            }
+
+            // Shift by the distance from the byte under the needle's last position to its last occurrence in the needle
+            i += skipTable[haystack.get(i + last) & 0xFF];
+        }
+
+        return -1;
+    }
+
+    /**
+     * Builds the Boyer-Moore-Horspool skip table of a needle.
+     *
+     * @param needle The byte sequence to be searched for.
+     * @return For each byte value, how far the search may shift when that byte is under the needle's last position.
+     */
+    public static int[] skipTable(byte[] needle)
+    {
+        int[] skipTable = new int[256];
+        Arrays.fill(skipTable, Math.max(needle.length, 1));
+        for (int i = 0; i < needle.length - 1; i++)
+        {
+            skipTable[needle[i] & 0xFF] = needle.length - 1 - i;
+        }
+        return skipTable;
+    }
+}
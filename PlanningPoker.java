@@ -10,13 +10,10 @@ package EffortLogger;
 
 import javax.swing.*;
 import java.awt.*;
-import java.awt.event.WindowAdapter;
-import java.awt.event.WindowEvent;
 import java.io.File;
 import java.io.IOException;
 import java.nio.file.Files;
-import java.util.ArrayList;
-import java.util.Arrays;
+import java.util.List;
 import java.util.Vector;
 
 /**
@@ -33,7 +30,8 @@ public class PlanningPoker extends JFrame {
     private String programmingLanguage;
     private String keywords;
     private JTextArea backlogItemInfoArea;
-    private ArrayList<Integer> cardSelections = new ArrayList<>();
+    private JLabel suggestionLabel; // Estimate suggested from similar backlog items
+    private VoteAccumulator votes = new VoteAccumulator(); // Card votes of the current round
     private int currentUserNumber = 1;
     private JTextField userNumberField;
     private JTextArea finalInfoTextArea;
@@ -190,7 +188,7 @@ public class PlanningPoker extends JFrame {
     }
 
     /**
-     * Performs a search for historical data based on a user-provided search term.
+     * Performs a search for historical data based on a user-provided search term, using the archive index.
      * Optionally, it can open the planning poker cards window after the search.
      *
      * @param openPokerCardsWindow Whether to open the planning poker cards window after searching.
@@ -198,21 +196,25 @@ public class PlanningPoker extends JFrame {
     private void performSearch(boolean openPokerCardsWindow) {
         String searchTerm = JOptionPane.showInputDialog(null, "Enter search term for historical data:");
         if (searchTerm != null && !searchTerm.trim().isEmpty()) {
-            try {
-                File[] matchingFiles = EncryptDecrypt.searchPlanningPokerFiles(searchTerm.trim());
-                if (matchingFiles.length > 0) {
+            // Search on the I/O thread and show the results once they are ready
+            AsyncIOService.run(this, "Searching historical data...", () -> PlanningPokerIndex.search(searchTerm.trim()), matchingFiles -> {
+                if (!matchingFiles.isEmpty()) {
                     displaySearchResults(matchingFiles);
                     if (openPokerCardsWindow) {
-                        openPlanningPokerCardsWindow();
+                        try {
+                            openPlanningPokerCardsWindow();
+                        } catch (IOException ex) {
+                            ex.printStackTrace();
+                        }
                     }
                 } else {
                     JOptionPane.showMessageDialog(null, "No matching historical data found.", "Search Results", JOptionPane.INFORMATION_MESSAGE);
                     new PlanningPoker().promptForNextAction(); // Reopen the main window for further actions
                 }
-            } catch (IOException ex) {
+            }, ex -> {
                 JOptionPane.showMessageDialog(null, "An error occurred while searching.", "Error", JOptionPane.ERROR_MESSAGE);
                 ex.printStackTrace();
-            }
+            });
         } else {
             new PlanningPoker().promptForNextAction(); // Reopen the main window for further actions
         }
@@ -220,34 +222,33 @@ public class PlanningPoker extends JFrame {
 
     /**
      * Displays the search results in a dialog.
-     * Allows the user to select a file from the search results and view its content.
+     * Allows the user to select a result and view where the search term matched and its decrypted content.
      *
-     * @param results An array of File objects representing the search results.
+     * @param results The search results to display.
      */
-    private void displaySearchResults(File[] results) {
+    private void displaySearchResults(List<PlanningPokerSearchResult> results) {
         JDialog resultsDialog = new JDialog(this, "Search Results", Dialog.ModalityType.MODELESS);
         resultsDialog.setLayout(new BorderLayout());
 
-        // Convert file names to a vector for display in a combo box
-        Vector<String> fileNames = new Vector<>();
-        for (File file : results) {
-            fileNames.add(file.getName());
-        }
-        JComboBox<String> fileComboBox = new JComboBox<>(fileNames);
+        // Show the results in a combo box; each result displays its backlog item name
+        JComboBox<PlanningPokerSearchResult> fileComboBox = new JComboBox<>(new Vector<>(results));
+
+        // Shows the text around the match in the selected result
+        JLabel snippetLabel = new JLabel(" ");
 
         JTextArea fileContentArea = new JTextArea();
         fileContentArea.setEditable(false);
         fileContentArea.setLineWrap(true);
         fileContentArea.setWrapStyleWord(true);
 
-        // Add an action listener to update the content area when a file is selected
+        // Add an action listener to update the content area when a result is selected
         fileComboBox.addActionListener(e -> {
-            String selectedFileName = (String) fileComboBox.getSelectedItem();
-            File selectedFile = Arrays.stream(results).filter(file -> file.getName().equals(selectedFileName)).findFirst().orElse(null);
-            if (selectedFile != null) {
+            PlanningPokerSearchResult selectedResult = (PlanningPokerSearchResult) fileComboBox.getSelectedItem();
+            if (selectedResult != null) {
                 try {
-                    String content = Files.readString(selectedFile.toPath());
-                    fileContentArea.setText(content);
+                    snippetLabel.setText(selectedResult.getSnippet()); // Decrypted in memory on first selection
+                    snippetLabel.setToolTipText(snippetLabel.getText());
+                    fileContentArea.setText(selectedResult.getContent());
                     fileContentArea.setCaretPosition(0); // Reset scroll position to the top
                 } catch (IOException ex) {
                     JOptionPane.showMessageDialog(resultsDialog, "Error reading file content.", "Error", JOptionPane.ERROR_MESSAGE);
@@ -258,23 +259,14 @@ public class PlanningPoker extends JFrame {
         JScrollPane contentScrollPane = new JScrollPane(fileContentArea);
         contentScrollPane.setPreferredSize(new Dimension(350, 200));
 
+        JPanel selectionPanel = new JPanel(new BorderLayout());
+        selectionPanel.add(fileComboBox, BorderLayout.NORTH);
+        selectionPanel.add(snippetLabel, BorderLayout.SOUTH);
+
         // Add components to the dialog
-        resultsDialog.add(fileComboBox, BorderLayout.NORTH);
+        resultsDialog.add(selectionPanel, BorderLayout.NORTH);
         resultsDialog.add(contentScrollPane, BorderLayout.CENTER);
 
-        // Add a window listener to clean up temporary files on closing
-        resultsDialog.addWindowListener(new WindowAdapter() {
-            @Override
-            public void windowClosing(WindowEvent e) {
-                for (File file : results) {
-                    boolean isDeleted = file.delete();
-                    if (!isDeleted) {
-                        System.out.println("Failed to delete file: " + file.getAbsolutePath());
-                    }
-                }
-            }
-        });
-
         resultsDialog.setSize(400, 300);
         resultsDialog.setLocationRelativeTo(this);
         resultsDialog.setVisible(true);
@@ -301,15 +293,14 @@ public class PlanningPoker extends JFrame {
             JButton cardButton = new JButton(cardValue);
             cardButton.addActionListener(e -> {
                 int cardVal = Integer.parseInt(cardValue);
-                cardSelections.add(cardVal);
+                votes.add(cardVal);
                 if (currentUserNumber < userCount) {
                     currentUserNumber++;
                     userNumberField.setText("User " + currentUserNumber + " of " + userCount);
                 } else {
-                    // Calculate average of selected values and display results
-                    double average = cardSelections.stream().mapToInt(Integer::intValue).average().orElse(0.0);
+                    // Display the estimate statistics of the votes
                     try {
-                        showAverageAndBacklogInfo(average);
+                        showEstimateAndBacklogInfo();
                     } catch (IOException e1) {
                         e1.printStackTrace();
                     }
@@ -334,10 +325,19 @@ public class PlanningPoker extends JFrame {
         JButton editInfoButton = new JButton("Edit Backlog Item Info");
         editInfoButton.addActionListener(e -> editBacklogItemInfo());
 
+        // Suggest an estimate from similar items finalized before
+        suggestionLabel = new JLabel("Looking up similar backlog items...");
+        suggestionLabel.setHorizontalAlignment(SwingConstants.CENTER);
+        updateSuggestion();
+
+        JPanel southPanel = new JPanel(new BorderLayout());
+        southPanel.add(suggestionLabel, BorderLayout.NORTH);
+        southPanel.add(editInfoButton, BorderLayout.SOUTH);
+
         JPanel infoPanel = new JPanel(new BorderLayout());
         infoPanel.add(currentBacklogItemLabel, BorderLayout.NORTH);
         infoPanel.add(infoScrollPane, BorderLayout.CENTER);
-        infoPanel.add(editInfoButton, BorderLayout.SOUTH);
+        infoPanel.add(southPanel, BorderLayout.SOUTH);
 
         userNumberField = new JTextField("User 1 of " + userCount, 10);
         userNumberField.setEditable(false);
@@ -354,6 +354,24 @@ public class PlanningPoker extends JFrame {
         pokerCardsFrame.setVisible(true);
     }
 
+    /**
+     * Looks up a suggested estimate for the current backlog item on the I/O thread and shows it once it is ready.
+     */
+    private void updateSuggestion() {
+        if (suggestionLabel == null) {
+            return;
+        }
+        JLabel label = suggestionLabel;
+        AsyncIOService.submit(() -> EstimateSuggester.suggest(backlogItemName, projectName, programmingLanguage, keywords,
+                EstimateSuggester.DEFAULT_NEIGHBORS)).whenComplete((suggestion, ex) -> SwingUtilities.invokeLater(() -> {
+            if (ex != null) {
+                label.setText("No suggestion available.");
+            } else {
+                label.setText(suggestion == null ? "No similar backlog items found." : suggestion.toString());
+            }
+        }));
+    }
+
     /**
      * Allows editing of the backlog item information.
      * A dialog is presented for the user to modify details like backlog item name, project name, etc.
@@ -389,12 +407,11 @@ public class PlanningPoker extends JFrame {
             this.keywords = keywordsField.getText();
 
             updateBacklogItemInfoArea(); // Refresh the displayed information
+            updateSuggestion(); // The suggestion depends on the edited fields
 
             // Update the final information text area if it exists
             if (finalInfoTextArea != null) {
-                String updatedInfoText = String.format("Backlog Item: %s\nProject: %s\nLanguage: %s\nKeywords: %s\nUsers: %d\nAverage Estimate: %.2f",
-                        backlogItemName, projectName, programmingLanguage, keywords, userCount, calculateAverageEstimate());
-                finalInfoTextArea.setText(updatedInfoText);
+                finalInfoTextArea.setText(formatFinalInfo());
             }
         }
     }
@@ -411,20 +428,17 @@ public class PlanningPoker extends JFrame {
     }
 
     /**
-     * Shows the average estimate and backlog information in a new window.
+     * Shows the estimate statistics and backlog information in a new window.
      * Provides options to edit backlog item info and finalize the backlog item.
      *
-     * @param average The calculated average estimate.
      * @throws IOException If an I/O error occurs.
      */
-    private void showAverageAndBacklogInfo(double average) throws IOException {
+    private void showEstimateAndBacklogInfo() throws IOException {
         JFrame infoFrame = new JFrame("Backlog Item Information");
         infoFrame.setLayout(new BorderLayout());
 
         JTextArea infoTextArea = new JTextArea();
-        String infoText = String.format("Backlog Item: %s\nProject: %s\nLanguage: %s\nKeywords: %s\nUsers: %d\nAverage Estimate: %.2f",
-                backlogItemName, projectName, programmingLanguage, keywords, userCount, average);
-        infoTextArea.setText(infoText);
+        infoTextArea.setText(formatFinalInfo());
         infoTextArea.setEditable(false);
 
         finalInfoTextArea = infoTextArea; // Store reference for future updates
@@ -437,17 +451,24 @@ public class PlanningPoker extends JFrame {
         editInfoButton.addActionListener(e -> editBacklogItemInfo());
         JButton finalizeButton = new JButton("Finalize Backlog Item");
         finalizeButton.addActionListener(e -> {
-            try {
+            // Write, encrypt, and index the backlog item on the I/O thread
+            AsyncIOService.run(infoFrame, "Saving backlog item...", () -> {
                 File tempFile = createTempBacklogFile();
                 EncryptDecrypt.encryptFile(tempFile.getAbsolutePath(), "planning_poker_data_encrypted", true);
                 tempFile.delete();
+
+                // Add the archived backlog item to the search index
+                String encryptedFileName = EncryptDecrypt.getEncryptedFileName(tempFile.getName());
+                PlanningPokerIndex.add(PlanningPokerIndex.getArchiveFolder().resolve(encryptedFileName));
+                return null;
+            }, done -> {
                 infoFrame.dispose(); // Close the info frame
                 EffortLoggerConsole.frame.setState(Frame.NORMAL);
                 EffortLoggerConsole.frame.toFront(); // Bring the main frame to the front
-            } catch (IOException ex) {
+            }, ex -> {
                 ex.printStackTrace();
                 JOptionPane.showMessageDialog(infoFrame, "Error during file encryption.", "Error", JOptionPane.ERROR_MESSAGE);
-            }
+            });
         });
 
         JPanel bottomPanel = new JPanel(new BorderLayout());
@@ -465,12 +486,14 @@ public class PlanningPoker extends JFrame {
     }
 
     /**
-     * Calculates the average of the selected estimates in the planning poker session.
+     * Formats the backlog item information together with the estimate statistics of the votes.
+     * This is the text shown once voting is done and saved when the backlog item is finalized.
      *
-     * @return The calculated average as a double.
+     * @return The formatted backlog item information.
      */
-    private double calculateAverageEstimate() {
-        return cardSelections.stream().mapToInt(Integer::intValue).average().orElse(0.0);
+    private String formatFinalInfo() {
+        return String.format("Backlog Item: %s\nProject: %s\nLanguage: %s\nKeywords: %s\nUsers: %d\n",
+                backlogItemName, projectName, programmingLanguage, keywords, userCount) + votes.formatStatistics();
     }
 
     /**
@@ -484,8 +507,7 @@ public class PlanningPoker extends JFrame {
         String fileName = backlogItemName.replaceAll("\\s+", "_") + ".txt";
         File tempFile = new File(System.getProperty("user.dir"), fileName);
 
-        String content = String.format("Backlog Item: %s\nProject: %s\nLanguage: %s\nKeywords: %s\nUsers: %d\nAverage Estimate: %.2f",
-                backlogItemName, projectName, programmingLanguage, keywords, userCount, calculateAverageEstimate());
+        String content = formatFinalInfo();
         
         Files.writeString(tempFile.toPath(), content); // Write the backlog information to the file
         return tempFile;
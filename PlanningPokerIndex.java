@@ -0,0 +1,580 @@
+package EffortLogger;
+
+//
+//File Name: PlanningPokerIndex.java
+//Creator: Team Th15
+//Last Updated: 10/18/2026
+//Project: CSE360 Team Th15 EFFORTLOGGER V2
+//Description: 	This file maintains an inverted index over the Planning Poker archive in planning_poker_data_encrypted.
+//				Words from the Backlog Item, Project, Language, and Keywords fields of each archived backlog item are
+//				mapped to the items that contain them, so historical searches do not have to read the archive. The index
+//				is saved next to the archive and checked against the archive directory when loaded, so only files added
+//				or changed outside the application are read again. A finalized backlog item appends one line to the
+//				saved index, and the file is rewritten only once superseded lines make up most of it. The vote
+//				histogram saved with each item is kept in the index as well, so searches can filter on estimate
+//				statistics such as the median or consensus without reading the items.
+
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.function.Predicate;
+import java.io.File;
+
+public class PlanningPokerIndex {
+
+    // Name of the index file, stored next to the planning_poker_data_encrypted directory
+    private static final String INDEX_FILE_NAME = "planning_poker_index.txt";
+
+    // Number of lines the index file may hold before superseded lines are compacted away
+    private static final int MIN_COMPACTION_LINES = 64;
+
+    // Fields of a backlog item whose words are indexed
+    private static final String[] INDEXED_FIELDS = {"Backlog Item: ", "Project: ", "Language: ", "Keywords: "};
+
+    // Field of a backlog item holding its vote histogram
+    private static final String VOTES_FIELD = "Votes: ";
+
+    // Field of a backlog item holding its average estimate
+    private static final String ESTIMATE_FIELD = "Average Estimate: ";
+
+    // Archived backlog items, by file name, with the words indexed for each
+    private static final Map<String, Record> records = new HashMap<>();
+
+    // Word -> file names of the backlog items containing it, sorted so prefixes can be looked up as ranges
+    private static final TreeMap<String, Set<String>> postings = new TreeMap<>();
+
+    // Whether the index has been loaded and checked against the archive directory
+    private static boolean loaded = false;
+
+    // Lines in the index file, including lines superseded by a later line for the same item
+    private static int indexLines = 0;
+
+    // Incremented whenever an item is added, changed, or removed, so derived indexes know when to rebuild
+    private static long version = 0;
+
+    /**
+     * Receives the indexed backlog items, see visitItems().
+     */
+    interface ItemVisitor
+    {
+        void visit(String fileName, Set<String> words, double estimate);
+    }
+
+    /**
+     * An indexed backlog item file: its modification time when indexed, its words, its votes (null if none),
+     * and its average estimate (NaN if none).
+     */
+    private static class Record
+    {
+        final long lastModified;
+        final Set<String> words;
+        final VoteAccumulator votes;
+        final double estimate;
+
+        Record(long lastModified, Set<String> words, VoteAccumulator votes, double estimate)
+        {
+            this.lastModified = lastModified;
+            this.words = words;
+            this.votes = votes;
+            this.estimate = estimate;
+        }
+    }
+
+    //--------------------------------------------query methods--------------------------------------------------------------
+
+    /**
+     * Searches the archive for backlog items matching every word of the search term.
+     * A search word matches any indexed word it is a prefix of, so "jav" finds "Java". Case is ignored.
+     * Search terms without any letters or digits fall back to scanning the archive.
+     *
+     * @param searchTerm The term to search for.
+     * @return The matching archive files, as results that decrypt their content on demand.
+     * @throws IOException If an I/O error occurs.
+     */
+    public static List<PlanningPokerSearchResult> search(String searchTerm) throws IOException
+    {
+        return search(searchTerm, null);
+    }
+
+    /**
+     * Searches the archive like search(String), keeping only backlog items whose saved votes pass a filter,
+     * e.g. {@code votes -> votes.isConsensus() && votes.getMedian() >= 8}. Items saved without votes never pass.
+     *
+     * @param searchTerm The term to search for.
+     * @param voteFilter The filter on the votes of each item, or null to keep every match.
+     * @return The matching archive files, as results that decrypt their content on demand.
+     * @throws IOException If an I/O error occurs.
+     */
+    public static synchronized List<PlanningPokerSearchResult> search(String searchTerm, Predicate<VoteAccumulator> voteFilter) throws IOException
+    {
+        load();
+
+        Set<String> searchWords = tokenize(searchTerm);
+        if (searchWords.isEmpty())
+        {
+            List<PlanningPokerSearchResult> results = new ArrayList<>();
+            for (PlanningPokerSearchResult result : EncryptDecrypt.searchPlanningPokerFiles(searchTerm))
+            {
+                Record record = records.get(result.getFile().getFileName().toString());
+                VoteAccumulator votes = record == null ? null : record.votes;
+                if (voteFilter == null || (votes != null && voteFilter.test(votes)))
+                {
+                    results.add(new PlanningPokerSearchResult(result.getFile(), searchTerm, votes));
+                }
+            }
+            return results;
+        }
+
+        // Intersect the items matching each search word, starting from the first word's matches
+        Set<String> matches = null;
+        for (String searchWord : searchWords)
+        {
+            Set<String> wordMatches = new HashSet<>();
+            for (Set<String> files : prefixRange(searchWord).values())
+            {
+                wordMatches.addAll(files);
+            }
+
+            if (matches == null)
+            {
+                matches = wordMatches;
+            }
+            else
+            {
+                matches.retainAll(wordMatches);
+            }
+
+            if (matches.isEmpty())
+            {
+                break;
+            }
+        }
+
+        List<PlanningPokerSearchResult> results = new ArrayList<>();
+        Path archiveFolder = getArchiveFolder();
+        for (String fileName : matches)
+        {
+            VoteAccumulator votes = records.get(fileName).votes;
+            if (voteFilter == null || (votes != null && voteFilter.test(votes)))
+            {
+                results.add(new PlanningPokerSearchResult(archiveFolder.resolve(fileName), searchTerm, votes));
+            }
+        }
+        return results;
+    }
+
+    /**
+     * Calls a visitor with every indexed backlog item, loading the index first.
+     *
+     * @param visitor Receives the file name, indexed words, and average estimate (NaN if none) of each item.
+     * @return The version of the index that was visited.
+     * @throws IOException If an I/O error occurs.
+     */
+    static synchronized long visitItems(ItemVisitor visitor) throws IOException
+    {
+        load();
+        for (Map.Entry<String, Record> entry : records.entrySet())
+        {
+            visitor.visit(entry.getKey(), entry.getValue().words, entry.getValue().estimate);
+        }
+        return version;
+    }
+
+    /**
+     * @return The current version of the index; it changes whenever an item is added, changed, or removed.
+     * @throws IOException If an I/O error occurs.
+     */
+    static synchronized long getVersion() throws IOException
+    {
+        load();
+        return version;
+    }
+
+    /**
+     * Retrieves every indexed word that starts with the given prefix.
+     *
+     * @param prefix The prefix to look up.
+     * @return The part of the postings map whose words start with the prefix.
+     */
+    private static SortedMap<String, Set<String>> prefixRange(String prefix)
+    {
+        return postings.subMap(prefix, prefix + Character.MAX_VALUE);
+    }
+
+    //--------------------------------------------update methods--------------------------------------------------------------
+
+    /**
+     * Indexes a newly finalized or updated backlog item file and appends its entry to the saved index.
+     *
+     * @param encryptedFile The encrypted backlog item file in the archive.
+     * @throws IOException If an I/O error occurs.
+     */
+    public static synchronized void add(Path encryptedFile) throws IOException
+    {
+        load();
+
+        indexFile(encryptedFile.toFile());
+        append(encryptedFile.getFileName().toString());
+    }
+
+    /**
+     * Loads the index on first use, then brings it up to date with the archive directory.
+     * Files that are new or have changed since they were indexed are read; entries for deleted files are dropped.
+     *
+     * @throws IOException If an I/O error occurs.
+     */
+    private static void load() throws IOException
+    {
+        if (loaded)
+        {
+            return;
+        }
+
+        loaded = true;
+
+        // A line cut off by a crash must not have a later line appended to it, so rewrite the file
+        boolean changed = readIndexFile();
+
+        File[] listOfEncryptedFiles = getArchiveFolder().toFile().listFiles();
+        if (listOfEncryptedFiles == null)
+        {
+            listOfEncryptedFiles = new File[0];
+        }
+
+        Set<String> presentFiles = new HashSet<>();
+
+        for (File encryptedFile : listOfEncryptedFiles)
+        {
+            if (!encryptedFile.isFile() || !EncryptDecrypt.isArchivedBacklogFile(encryptedFile.getName()))
+            {
+                continue;
+            }
+
+            presentFiles.add(encryptedFile.getName());
+
+            Record record = records.get(encryptedFile.getName());
+            if (record == null || record.lastModified != encryptedFile.lastModified())
+            {
+                indexFile(encryptedFile);
+                changed = true;
+            }
+        }
+
+        // Drop entries whose files were deleted
+        for (String fileName : new ArrayList<>(records.keySet()))
+        {
+            if (!presentFiles.contains(fileName))
+            {
+                removeRecord(fileName);
+                changed = true;
+            }
+        }
+
+        if (changed)
+        {
+            save();
+        }
+    }
+
+    /**
+     * Reads a backlog item file and replaces its entry in the index.
+     *
+     * @param encryptedFile The encrypted backlog item file.
+     * @throws IOException If an I/O error occurs.
+     */
+    private static void indexFile(File encryptedFile) throws IOException
+    {
+        String content = EncryptDecrypt.decryptString(Files.readString(encryptedFile.toPath()));
+        putRecord(encryptedFile.getName(), new Record(encryptedFile.lastModified(), extractWords(content), extractVotes(content),
+                extractEstimate(content)));
+    }
+
+    /**
+     * Adds a record to the index, replacing any previous record for the same file.
+     *
+     * @param fileName Name of the backlog item file.
+     * @param record   The record to add.
+     */
+    private static void putRecord(String fileName, Record record)
+    {
+        removeRecord(fileName);
+        records.put(fileName, record);
+        version++;
+        for (String word : record.words)
+        {
+            postings.computeIfAbsent(word, key -> new HashSet<>()).add(fileName);
+        }
+    }
+
+    /**
+     * Removes a record and its postings from the index.
+     *
+     * @param fileName Name of the backlog item file.
+     */
+    private static void removeRecord(String fileName)
+    {
+        Record previous = records.remove(fileName);
+        if (previous == null)
+        {
+            return;
+        }
+        version++;
+
+        for (String word : previous.words)
+        {
+            Set<String> files = postings.get(word);
+            if (files != null)
+            {
+                files.remove(fileName);
+                if (files.isEmpty())
+                {
+                    postings.remove(word);
+                }
+            }
+        }
+    }
+
+    //--------------------------------------------text methods--------------------------------------------------------------
+
+    /**
+     * Extracts the indexed words from the decrypted content of a backlog item file.
+     * A file may hold several backlog items if the same item was finalized more than once.
+     *
+     * @param content The decrypted file content.
+     * @return The words of the indexed fields.
+     */
+    static Set<String> extractWords(String content)
+    {
+        Set<String> words = new LinkedHashSet<>();
+        for (String line : content.split("\n"))
+        {
+            for (String field : INDEXED_FIELDS)
+            {
+                if (line.startsWith(field))
+                {
+                    words.addAll(tokenize(line.substring(field.length())));
+                }
+            }
+        }
+        return words;
+    }
+
+    /**
+     * Extracts the vote histogram from the decrypted content of a backlog item file.
+     * If the same item was finalized more than once, the last votes are used.
+     *
+     * @param content The decrypted file content.
+     * @return The votes, or null if the item was saved without a vote histogram.
+     */
+    static VoteAccumulator extractVotes(String content)
+    {
+        VoteAccumulator votes = null;
+        for (String line : content.split("\n"))
+        {
+            if (line.startsWith(VOTES_FIELD))
+            {
+                VoteAccumulator parsed = VoteAccumulator.parse(line.substring(VOTES_FIELD.length()));
+                votes = parsed != null ? parsed : votes;
+            }
+        }
+        return votes;
+    }
+
+    /**
+     * Extracts the average estimate from the decrypted content of a backlog item file.
+     * If the same item was finalized more than once, the last estimate is used.
+     *
+     * @param content The decrypted file content.
+     * @return The average estimate, or NaN if the item has none.
+     */
+    static double extractEstimate(String content)
+    {
+        double estimate = Double.NaN;
+        for (String line : content.split("\n"))
+        {
+            if (line.startsWith(ESTIMATE_FIELD))
+            {
+                estimate = parseEstimate(line.substring(ESTIMATE_FIELD.length()), estimate);
+            }
+        }
+        return estimate;
+    }
+
+    /**
+     * Parses an estimate, accepting a decimal comma as written in some locales.
+     *
+     * @param text     The estimate text.
+     * @param fallback The value returned if the text is not a number.
+     * @return The estimate.
+     */
+    private static double parseEstimate(String text, double fallback)
+    {
+        try
+        {
+            return Double.parseDouble(text.trim().replace(',', '.'));
+        }
+        catch (NumberFormatException e)
+        {
+            return fallback;
+        }
+    }
+
+    /**
+     * Splits text into lower-case words made of letters and digits.
+     *
+     * @param text The text to split.
+     * @return The distinct words, in order of first appearance.
+     */
+    static Set<String> tokenize(String text)
+    {
+        Set<String> words = new LinkedHashSet<>();
+        for (String word : text.toLowerCase().split("[^\\p{L}\\p{N}]+"))
+        {
+            if (!word.isEmpty())
+            {
+                words.add(word);
+            }
+        }
+        return words;
+    }
+
+    //--------------------------------------------persistence methods--------------------------------------------------------------
+
+    /**
+     * Reads the saved index into memory, if it exists. A later line for the same item replaces an earlier one.
+     *
+     * @return true if the file ends in a line cut off while it was appended, false otherwise.
+     * @throws IOException If an I/O error occurs.
+     */
+    private static boolean readIndexFile() throws IOException
+    {
+        Path indexPath = getIndexPath();
+        if (!Files.exists(indexPath))
+        {
+            return false;
+        }
+
+        // Each line holds: file name, modification time, the encrypted words separated by spaces, the vote counts,
+        // and the average estimate. Only lines ending in a line break are complete.
+        String[] lines = Files.readString(indexPath, StandardCharsets.UTF_8).split("\n", -1);
+        indexLines = lines.length - 1;
+        for (int i = 0; i < indexLines; i++)
+        {
+            String line = lines[i];
+            String[] fields = line.split("\t", 5);
+            if (fields.length < 3)
+            {
+                continue;
+            }
+
+            // Lines written by older versions lack the last fields; those items are treated as having no votes or estimate
+            VoteAccumulator votes = fields.length >= 4 && !fields[3].isEmpty() ? VoteAccumulator.parse(fields[3]) : null;
+            double estimate = fields.length == 5 ? parseEstimate(fields[4], Double.NaN) : Double.NaN;
+
+            try
+            {
+                Set<String> words = new LinkedHashSet<>();
+                for (String word : EncryptDecrypt.decryptString(fields[2]).split(" "))
+                {
+                    if (!word.isEmpty())
+                    {
+                        words.add(word);
+                    }
+                }
+                putRecord(fields[0], new Record(Long.parseLong(fields[1]), words, votes, estimate));
+            }
+            catch (NumberFormatException e)
+            {
+                // Skip damaged lines; the file is re-indexed because it is missing from the index
+            }
+        }
+        return !lines[indexLines].isEmpty();
+    }
+
+    /**
+     * Appends the entry of one backlog item to the saved index, or rewrites the whole index
+     * if superseded lines would make up more than half of the file.
+     *
+     * @param fileName Name of the backlog item file.
+     * @throws IOException If an I/O error occurs.
+     */
+    private static void append(String fileName) throws IOException
+    {
+        if (indexLines >= MIN_COMPACTION_LINES && indexLines >= 2 * records.size())
+        {
+            save();
+            return;
+        }
+
+        StringBuilder line = new StringBuilder();
+        formatRecord(line, fileName, records.get(fileName));
+        Files.writeString(getIndexPath(), line, StandardCharsets.UTF_8, StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+        indexLines++;
+    }
+
+    /**
+     * Writes the index to disk, replacing the previous version atomically.
+     *
+     * @throws IOException If an I/O error occurs.
+     */
+    private static void save() throws IOException
+    {
+        StringBuilder content = new StringBuilder();
+        for (Map.Entry<String, Record> entry : records.entrySet())
+        {
+            formatRecord(content, entry.getKey(), entry.getValue());
+        }
+
+        Path indexPath = getIndexPath();
+        Path tempPath = indexPath.resolveSibling(INDEX_FILE_NAME + ".tmp");
+        Files.writeString(tempPath, content, StandardCharsets.UTF_8);
+        Files.move(tempPath, indexPath, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        indexLines = records.size();
+    }
+
+    /**
+     * Writes the index line of one backlog item.
+     *
+     * @param content  The text to append the line to.
+     * @param fileName Name of the backlog item file.
+     * @param record   The item's record.
+     */
+    private static void formatRecord(StringBuilder content, String fileName, Record record)
+    {
+        content.append(fileName).append('\t')
+               .append(record.lastModified).append('\t')
+               .append(EncryptDecrypt.encryptString(String.join(" ", record.words))).append('\t')
+               .append(record.votes == null ? "" : record.votes.formatCounts()).append('\t')
+               .append(record.estimate).append('\n');
+    }
+
+    /**
+     * Retrieves the Planning Poker archive directory.
+     *
+     * @return Path to the planning_poker_data_encrypted directory.
+     */
+    static Path getArchiveFolder()
+    {
+        return Paths.get(System.getProperty("user.dir"), "planning_poker_data_encrypted");
+    }
+
+    /**
+     * Retrieves the path of the index file.
+     *
+     * @return Path to the index file.
+     */
+    private static Path getIndexPath()
+    {
+        return Paths.get(System.getProperty("user.dir"), INDEX_FILE_NAME);
+    }
+}
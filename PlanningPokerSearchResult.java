@@ -0,0 +1,128 @@
+package EffortLogger;
+
+//
+//File Name: PlanningPokerSearchResult.java
+//Creator: Team Th15
+//Last Updated: 10/18/2026
+//Project: CSE360 Team Th15 EFFORTLOGGER V2
+//Description: 	This class represents one hit of a Planning Poker archive search. It keeps a handle to the encrypted
+//				archive file and decrypts the file's content only when it is first asked for, entirely in memory,
+//				so searching never writes decrypted copies to disk.
+
+
+import java.io.IOException;
+import java.nio.file.*;
+
+public class PlanningPokerSearchResult {
+
+    // Number of characters shown on each side of the match in a snippet
+    private static final int SNIPPET_CONTEXT = 40;
+
+    private final Path file;
+    private final String searchTerm;
+
+    // Vote histogram saved with the backlog item, from the archive index; null if the item has none
+    private final VoteAccumulator votes;
+
+    // Decrypted content, filled in on first use
+    private String content;
+
+    /**
+     * Creates a search result for an archive file.
+     *
+     * @param file       The encrypted archive file that matched.
+     * @param searchTerm The search term that matched, used to place the snippet.
+     */
+    public PlanningPokerSearchResult(Path file, String searchTerm)
+    {
+        this(file, searchTerm, null);
+    }
+
+    /**
+     * Creates a search result for an archive file whose vote statistics are known from the index.
+     *
+     * @param file       The encrypted archive file that matched.
+     * @param searchTerm The search term that matched, used to place the snippet.
+     * @param votes      The votes saved with the backlog item, or null if it has none.
+     */
+    public PlanningPokerSearchResult(Path file, String searchTerm, VoteAccumulator votes)
+    {
+        this.file = file;
+        this.searchTerm = searchTerm;
+        this.votes = votes;
+    }
+
+    /**
+     * @return The encrypted archive file that matched.
+     */
+    public Path getFile()
+    {
+        return file;
+    }
+
+    /**
+     * @return The votes saved with the backlog item, for its estimate statistics; null if it has none.
+     */
+    public VoteAccumulator getVotes()
+    {
+        return votes;
+    }
+
+    /**
+     * @return Name of the backlog item file, without the "_encrypted.txt" suffix.
+     */
+    public String getName()
+    {
+        return file.getFileName().toString().replace("_encrypted.txt", "");
+    }
+
+    /**
+     * Retrieves the decrypted content of the archive file, reading and decrypting it on first use.
+     *
+     * @return The decrypted content.
+     * @throws IOException If an I/O error occurs.
+     */
+    public synchronized String getContent() throws IOException
+    {
+        if (content == null)
+        {
+            content = EncryptDecrypt.decryptString(Files.readString(file));
+        }
+        return content;
+    }
+
+    /**
+     * Retrieves the decrypted text surrounding the first match of the search term, ignoring case.
+     * Index searches match word by word, so if the whole term does not appear, the first word is used instead.
+     *
+     * @return The text around the match, with "..." marking cut-off ends.
+     * @throws IOException If an I/O error occurs.
+     */
+    public String getSnippet() throws IOException
+    {
+        String decrypted = getContent();
+        String lowerContent = decrypted.toLowerCase();
+        String term = searchTerm.toLowerCase().trim();
+
+        int matchIndex = lowerContent.indexOf(term);
+        if (matchIndex < 0 && term.contains(" "))
+        {
+            term = term.substring(0, term.indexOf(' '));
+            matchIndex = lowerContent.indexOf(term);
+        }
+        int matchLength = matchIndex < 0 ? 0 : term.length();
+        matchIndex = Math.max(matchIndex, 0);
+
+        int start = Math.max(0, Math.min(matchIndex, decrypted.length()) - SNIPPET_CONTEXT);
+        int end = Math.min(decrypted.length(), matchIndex + matchLength + SNIPPET_CONTEXT);
+
+        String snippet = decrypted.substring(start, end).replace('\n', ' ');
+        return (start > 0 ? "..." : "") + snippet + (end < decrypted.length() ? "..." : "");
+    }
+
+    @Override
+    public String toString()
+    {
+        return getName();
+    }
+}
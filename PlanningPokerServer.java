@@ -0,0 +1,451 @@
+package EffortLogger;
+
+//
+//File Name: PlanningPokerServer.java
+//Creator: Team Th15
+//Last Updated: 10/18/2026
+//Project: CSE360 Team Th15 EFFORTLOGGER V2
+//Description: 	This file contains a small HTTP server that runs Planning Poker sessions for players on different
+//				machines. Any number of sessions can be open at once, and the players of a session vote at the same
+//				time instead of taking turns at one screen. Votes are counted lock-free in an atomic histogram over the
+//				card deck. When the last of the session's players has voted, the votes are revealed to every player
+//				waiting for the result; waiting players hold no server thread, so a few threads serve many players.
+//
+//				Requests (all answers are plain text):
+//				  POST   /sessions?users=N&item=NAME               creates a session and answers its id
+//				  POST   /sessions/ID/vote?player=NAME&card=VALUE  votes once per player
+//				  GET    /sessions/ID/result?waitMillis=MS          answers the statistics once all players voted
+//				  DELETE /sessions/ID                               closes a session
+
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLong;
+
+public class PlanningPokerServer {
+
+    // Port used when none is given
+    public static final int DEFAULT_PORT = Integer.getInteger("effortlogger.pokerPort", 8360);
+
+    // Sessions idle for longer than this are closed
+    private static final long SESSION_IDLE_MILLIS = TimeUnit.MINUTES.toMillis(Long.getLong("effortlogger.pokerSessionMinutes", 120));
+
+    // Longest time a result request waits for the remaining votes
+    private static final long MAX_WAIT_MILLIS = 60_000;
+
+    // Largest number of players in one session
+    private static final int MAX_USERS = 1000;
+
+    private final HttpServer server;
+    private final ExecutorService handlers;
+    private final ScheduledExecutorService reaper;
+
+    // Open sessions by id
+    private final Map<String, Session> sessions = new ConcurrentHashMap<>();
+    private final AtomicLong nextSessionId = new AtomicLong();
+
+    /**
+     * A Planning Poker round for one backlog item. Every field that players change is atomic, so votes arriving
+     * at the same time never wait for each other.
+     */
+    private static class Session
+    {
+        final String id;
+        final String backlogItemName;
+        final int userCount;
+
+        final Set<String> players = ConcurrentHashMap.newKeySet(); // Players who voted
+        final AtomicInteger acceptedVotes = new AtomicInteger();  // Votes admitted, at most userCount
+        final AtomicIntegerArray counts = new AtomicIntegerArray(VoteAccumulator.DECK.length);
+        final AtomicInteger countedVotes = new AtomicInteger();    // Votes added to the histogram
+
+        // Completed with the votes when the last player has voted
+        final CompletableFuture<VoteAccumulator> reveal = new CompletableFuture<>();
+        volatile long lastUsedMillis = System.currentTimeMillis();
+
+        Session(String id, String backlogItemName, int userCount)
+        {
+            this.id = id;
+            this.backlogItemName = backlogItemName;
+            this.userCount = userCount;
+        }
+
+        /**
+         * Counts a player's vote, revealing the votes if it is the last one.
+         *
+         * @param player The player voting.
+         * @param card   The index of the card in the deck.
+         * @return true if the vote was counted, false if the player already voted or every player has voted.
+         */
+        boolean vote(String player, int card)
+        {
+            if (!players.add(player))
+            {
+                return false;
+            }
+            if (acceptedVotes.incrementAndGet() > userCount)
+            {
+                acceptedVotes.decrementAndGet();
+                players.remove(player);
+                return false;
+            }
+
+            // The card is counted before the vote is, so whoever counts the last vote sees every card
+            counts.incrementAndGet(card);
+            if (countedVotes.incrementAndGet() == userCount)
+            {
+                reveal.complete(snapshot());
+            }
+            return true;
+        }
+
+        /**
+         * @return The votes counted so far.
+         */
+        VoteAccumulator snapshot()
+        {
+            VoteAccumulator votes = new VoteAccumulator();
+            for (int card = 0; card < counts.length(); card++)
+            {
+                votes.add(VoteAccumulator.DECK[card], counts.get(card));
+            }
+            return votes;
+        }
+    }
+
+    /**
+     * Creates a server bound to an address; call start() to accept requests.
+     *
+     * @param address The address to listen on.
+     * @throws IOException If the address cannot be bound.
+     */
+    private PlanningPokerServer(InetSocketAddress address) throws IOException
+    {
+        server = HttpServer.create(address, 0);
+
+        // Handlers never block on other players, so one thread per processor serves any number of waiting players
+        handlers = Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors(), daemonThreads("PlanningPoker-HTTP"));
+        reaper = Executors.newSingleThreadScheduledExecutor(daemonThreads("PlanningPoker-Reaper"));
+
+        server.setExecutor(handlers);
+        server.createContext("/sessions", this::handle);
+    }
+
+    //--------------------------------------------server methods--------------------------------------------------------------
+
+    /**
+     * Starts a server on the loopback address.
+     *
+     * @param port The port to listen on, or 0 for any free port.
+     * @return The running server.
+     * @throws IOException If the port cannot be bound.
+     */
+    public static PlanningPokerServer start(int port) throws IOException
+    {
+        return start(new InetSocketAddress(InetAddress.getLoopbackAddress(), port));
+    }
+
+    /**
+     * Starts a server on the given address, e.g. a network interface the team can reach.
+     *
+     * @param address The address to listen on.
+     * @return The running server.
+     * @throws IOException If the address cannot be bound.
+     */
+    public static PlanningPokerServer start(InetSocketAddress address) throws IOException
+    {
+        PlanningPokerServer pokerServer = new PlanningPokerServer(address);
+        pokerServer.server.start();
+        pokerServer.reaper.scheduleWithFixedDelay(pokerServer::closeIdleSessions, 1, 1, TimeUnit.MINUTES);
+        return pokerServer;
+    }
+
+    /**
+     * @return The port the server listens on.
+     */
+    public int getPort()
+    {
+        return server.getAddress().getPort();
+    }
+
+    /**
+     * Stops the server, answering nothing more to players still waiting.
+     */
+    public void stop()
+    {
+        server.stop(0);
+        reaper.shutdownNow();
+        handlers.shutdownNow();
+    }
+
+    /**
+     * Runs a server until the process ends.
+     *
+     * @param args Optionally the host and port to listen on; the loopback address and DEFAULT_PORT otherwise.
+     * @throws IOException If the address cannot be bound.
+     */
+    public static void main(String[] args) throws IOException
+    {
+        String host = args.length > 0 ? args[0] : InetAddress.getLoopbackAddress().getHostAddress();
+        int port = args.length > 1 ? Integer.parseInt(args[1]) : DEFAULT_PORT;
+        PlanningPokerServer pokerServer = start(new InetSocketAddress(host, port));
+        System.out.println("Planning Poker server listening on " + host + ":" + pokerServer.getPort());
+    }
+
+    //--------------------------------------------request methods--------------------------------------------------------------
+
+    /**
+     * Dispatches a request under /sessions.
+     *
+     * @param exchange The request and its response.
+     */
+    private void handle(HttpExchange exchange)
+    {
+        try
+        {
+            String method = exchange.getRequestMethod();
+            String[] path = exchange.getRequestURI().getPath().split("/"); // "", "sessions", id, action
+            Map<String, String> query = parseQuery(exchange.getRequestURI().getRawQuery());
+
+            if (path.length == 2 && method.equals("POST"))
+            {
+                createSession(exchange, query);
+                return;
+            }
+
+            Session session = path.length >= 3 ? sessions.get(path[2]) : null;
+            if (session == null)
+            {
+                respond(exchange, 404, "No such session");
+                return;
+            }
+            session.lastUsedMillis = System.currentTimeMillis();
+
+            if (path.length == 3 && method.equals("DELETE"))
+            {
+                sessions.remove(session.id);
+                session.reveal.cancel(false);
+                respond(exchange, 200, "Closed");
+            }
+            else if (path.length == 4 && path[3].equals("vote") && method.equals("POST"))
+            {
+                vote(exchange, session, query);
+            }
+            else if (path.length == 4 && path[3].equals("result") && method.equals("GET"))
+            {
+                awaitResult(exchange, session, query);
+            }
+            else
+            {
+                respond(exchange, 404, "Unknown request");
+            }
+        }
+        catch (RuntimeException e)
+        {
+            respond(exchange, 500, "Server error");
+            e.printStackTrace();
+        }
+    }
+
+    /**
+     * Creates a session for a number of players.
+     *
+     * @param exchange The request and its response.
+     * @param query    The request parameters: users and item.
+     */
+    private void createSession(HttpExchange exchange, Map<String, String> query)
+    {
+        int userCount = parseInt(query.get("users"), -1);
+        if (userCount < 1 || userCount > MAX_USERS)
+        {
+            respond(exchange, 400, "users must be between 1 and " + MAX_USERS);
+            return;
+        }
+
+        String id = Long.toString(nextSessionId.incrementAndGet());
+        sessions.put(id, new Session(id, query.getOrDefault("item", ""), userCount));
+        respond(exchange, 201, id);
+    }
+
+    /**
+     * Counts a player's vote.
+     *
+     * @param exchange The request and its response.
+     * @param session  The session voted in.
+     * @param query    The request parameters: player and card.
+     */
+    private void vote(HttpExchange exchange, Session session, Map<String, String> query)
+    {
+        String player = query.get("player");
+        int card = Arrays.binarySearch(VoteAccumulator.DECK, parseInt(query.get("card"), -1));
+        if (player == null || player.isEmpty() || card < 0)
+        {
+            respond(exchange, 400, "A player and a card of " + Arrays.toString(VoteAccumulator.DECK) + " are required");
+        }
+        else if (session.vote(player, card))
+        {
+            respond(exchange, 200, "Voted");
+        }
+        else
+        {
+            respond(exchange, 409, "Already voted, or every player has voted");
+        }
+    }
+
+    /**
+     * Answers the statistics of a session once every player has voted. The exchange is completed on a handler thread
+     * when the reveal happens, so no thread waits and the voter or timer completing the reveal does not write the
+     * response; if the votes are not all in within the wait time, the number of votes so far is answered.
+     *
+     * @param exchange The request and its response.
+     * @param session  The session whose result is requested.
+     * @param query    The request parameters: optionally waitMillis.
+     */
+    private void awaitResult(HttpExchange exchange, Session session, Map<String, String> query)
+    {
+        long waitMillis = Math.min(Math.max(parseInt(query.get("waitMillis"), 0), 0), MAX_WAIT_MILLIS);
+        CompletableFuture<VoteAccumulator> reveal = session.reveal;
+        if (!reveal.isDone())
+        {
+            if (waitMillis == 0)
+            {
+                respond(exchange, 202, "Waiting: " + session.countedVotes.get() + " of " + session.userCount + " votes");
+                return;
+            }
+
+            // Waits on a copy, so the timeout does not complete the session's own reveal
+            reveal = reveal.copy().completeOnTimeout(null, waitMillis, TimeUnit.MILLISECONDS);
+        }
+
+        reveal.whenCompleteAsync((votes, ex) -> {
+            if (ex != null)
+            {
+                respond(exchange, 410, "Session closed");
+            }
+            else if (votes == null)
+            {
+                respond(exchange, 202, "Waiting: " + session.countedVotes.get() + " of " + session.userCount + " votes");
+            }
+            else
+            {
+                respond(exchange, 200, "Backlog Item: " + session.backlogItemName + "\n" + votes.formatStatistics());
+            }
+        }, handlers);
+    }
+
+    /**
+     * Closes the sessions nobody has used for SESSION_IDLE_MILLIS.
+     */
+    private void closeIdleSessions()
+    {
+        long cutoff = System.currentTimeMillis() - SESSION_IDLE_MILLIS;
+        sessions.values().removeIf(session -> {
+            if (session.lastUsedMillis < cutoff)
+            {
+                session.reveal.cancel(false);
+                return true;
+            }
+            return false;
+        });
+    }
+
+    //--------------------------------------------helper methods--------------------------------------------------------------
+
+    /**
+     * Sends a plain text response and closes the exchange.
+     *
+     * @param exchange The request and its response.
+     * @param status   The HTTP status code.
+     * @param body     The response text.
+     */
+    private static void respond(HttpExchange exchange, int status, String body)
+    {
+        byte[] bytes = (body + "\n").getBytes(StandardCharsets.UTF_8);
+        try
+        {
+            exchange.getResponseHeaders().set("Content-Type", "text/plain; charset=utf-8");
+            exchange.sendResponseHeaders(status, bytes.length);
+            try (OutputStream out = exchange.getResponseBody())
+            {
+                out.write(bytes);
+            }
+        }
+        catch (IOException e)
+        {
+            exchange.close(); // The player disconnected
+        }
+    }
+
+    /**
+     * Parses the parameters of a query string.
+     *
+     * @param rawQuery The URL-encoded query string, or null.
+     * @return The parameters by name.
+     */
+    private static Map<String, String> parseQuery(String rawQuery)
+    {
+        Map<String, String> parameters = new HashMap<>();
+        if (rawQuery == null)
+        {
+            return parameters;
+        }
+        for (String pair : rawQuery.split("&"))
+        {
+            int equals = pair.indexOf('=');
+            if (equals > 0)
+            {
+                parameters.put(URLDecoder.decode(pair.substring(0, equals), StandardCharsets.UTF_8),
+                        URLDecoder.decode(pair.substring(equals + 1), StandardCharsets.UTF_8));
+            }
+        }
+        return parameters;
+    }
+
+    /**
+     * Parses a whole number, returning a fallback for missing or invalid text.
+     */
+    private static int parseInt(String text, int fallback)
+    {
+        try
+        {
+            return text == null ? fallback : Integer.parseInt(text.trim());
+        }
+        catch (NumberFormatException e)
+        {
+            return fallback;
+        }
+    }
+
+    /**
+     * Creates named daemon threads, so the worker threads never keep the application running after the server stops.
+     */
+    private static ThreadFactory daemonThreads(String name)
+    {
+        AtomicInteger number = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, name + "-" + number.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+}
@@ -0,0 +1,220 @@
+package EffortLogger;
+
+//
+//File Name: SessionManager.java
+//Creator: Team Th15
+//Last Updated: 10/18/2026
+//Project: CSE360 Team Th15 EFFORTLOGGER V2
+//Description: 	This file keeps the login sessions of scripted clients and of several users sharing one JVM. A login
+//				verifies the credentials once and returns a token bound to the user's file and an effort logger for
+//				that user; afterwards the token alone resolves to the session from an in-memory concurrent map, without
+//				reading user_info_encrypted; only the modification time of the user file is checked, so a changed
+//				password ends the session. A session expires after a period without use or, however busy, after a
+//				maximum lifetime, and expired sessions are removed in the background.
+
+
+import java.io.IOException;
+import java.nio.file.*;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+public class SessionManager {
+
+    // Time a session stays valid after it was last used
+    private static final long SESSION_TIMEOUT_MILLIS = TimeUnit.MINUTES.toMillis(Long.getLong("effortlogger.sessionMinutes", 30));
+
+    // Time a session stays valid after login, however often it is used
+    private static final long SESSION_MAX_LIFETIME_MILLIS = TimeUnit.HOURS.toMillis(Long.getLong("effortlogger.sessionMaxHours", 12));
+
+    // Open sessions by token
+    private static final Map<String, Session> sessions = new ConcurrentHashMap<>();
+
+    // Removes expired sessions in the background
+    private static final ScheduledExecutorService sweeper = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "SessionManager-expiry");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    static
+    {
+        sweeper.scheduleWithFixedDelay(SessionManager::removeExpired, 1, 1, TimeUnit.MINUTES);
+    }
+
+    /**
+     * An authenticated context: the user's file and an effort logger bound to it.
+     * The effort logger is shared by everyone resolving the session; its clock methods are synchronized.
+     */
+    public static final class Session
+    {
+        private final String token;
+        private final String userName;
+        private final Path userFile;
+        private final long userFileModified; // Modification time of the user file when the password was verified
+        private final long maxExpiresAtMillis; // End of the maximum lifetime
+        private final EffortLogger effortLogger;
+        private volatile long expiresAtMillis;
+
+        private Session(String token, String userName, Path userFile, long userFileModified)
+        {
+            long now = System.currentTimeMillis();
+            this.token = token;
+            this.userName = userName;
+            this.userFile = userFile;
+            this.userFileModified = userFileModified;
+            this.effortLogger = new EffortLogger(userFile);
+            this.maxExpiresAtMillis = now + SESSION_MAX_LIFETIME_MILLIS;
+            this.expiresAtMillis = Math.min(now + SESSION_TIMEOUT_MILLIS, maxExpiresAtMillis);
+        }
+
+        /**
+         * @return The token that identifies the session.
+         */
+        public String getToken()
+        {
+            return token;
+        }
+
+        /**
+         * @return The name the user logged in with.
+         */
+        public String getUserName()
+        {
+            return userName;
+        }
+
+        /**
+         * @return The user's credential file.
+         */
+        public Path getUserFile()
+        {
+            return userFile;
+        }
+
+        /**
+         * @return An effort logger that logs into this user's log, independent of the desktop user.
+         */
+        public EffortLogger getEffortLogger()
+        {
+            return effortLogger;
+        }
+
+        /**
+         * @return Time in milliseconds since the epoch at which the session expires unless it is used before then
+         * and has not reached its maximum lifetime.
+         */
+        public long getExpiresAtMillis()
+        {
+            return expiresAtMillis;
+        }
+    }
+
+    //--------------------------------------------session methods--------------------------------------------------------------
+
+    /**
+     * Verifies a username and password and opens a session for the user.
+     *
+     * @param userName The username.
+     * @param password The password.
+     * @return The new session, or null if the credentials do not match.
+     * @throws IOException If an I/O error occurs.
+     */
+    public static Session login(String userName, String password) throws IOException
+    {
+        String token = CredentialVerifier.login(userName, password);
+        Path userFile = token == null ? null : CredentialVerifier.verifyToken(token);
+        if (userFile == null)
+        {
+            return null;
+        }
+
+        Session session = new Session(token, userName, userFile, userFile.toFile().lastModified());
+        sessions.put(token, session);
+        return session;
+    }
+
+    /**
+     * Retrieves the session of a token and extends its lifetime up to the maximum lifetime.
+     * The user file is not read; the session ends if its modification time changed since login, e.g. because the
+     * password was changed.
+     *
+     * @param token A token of a session opened with login().
+     * @return The session, or null if the token is unknown, the session expired, or the user file changed.
+     */
+    public static Session resolve(String token)
+    {
+        Session open = token == null ? null : sessions.get(token);
+        if (open == null)
+        {
+            return null;
+        }
+        boolean userFileChanged = open.userFile.toFile().lastModified() != open.userFileModified;
+
+        // Checking and extending happen atomically, so the sweeper cannot remove a session that was just used
+        long now = System.currentTimeMillis();
+        Session session = sessions.computeIfPresent(token, (key, current) -> {
+            if (userFileChanged || now >= current.expiresAtMillis)
+            {
+                return null;
+            }
+            current.expiresAtMillis = Math.min(now + SESSION_TIMEOUT_MILLIS, current.maxExpiresAtMillis);
+            return current;
+        });
+        if (session == null)
+        {
+            CredentialVerifier.logout(token);
+        }
+        return session;
+    }
+
+    /**
+     * Closes a session, so its token can no longer be used.
+     *
+     * @param token A token of a session opened with login().
+     */
+    public static void logout(String token)
+    {
+        if (token != null)
+        {
+            close(token);
+        }
+    }
+
+    /**
+     * @return Number of open sessions, including expired ones not yet removed.
+     */
+    public static int getSessionCount()
+    {
+        return sessions.size();
+    }
+
+    /**
+     * Removes a session and forgets its verified login.
+     *
+     * @param token The session's token.
+     */
+    private static void close(String token)
+    {
+        sessions.remove(token);
+        CredentialVerifier.logout(token);
+    }
+
+    /**
+     * Removes every session that has expired.
+     */
+    private static void removeExpired()
+    {
+        long now = System.currentTimeMillis();
+        for (String token : sessions.keySet())
+        {
+            Session session = sessions.computeIfPresent(token, (key, open) -> now >= open.expiresAtMillis ? null : open);
+            if (session == null)
+            {
+                CredentialVerifier.logout(token);
+            }
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package EffortLogger;
+
+//
+//File Name: StartupTrace.java
+//Creator: Team Th15
+//Last Updated: 10/18/2026
+//Project: CSE360 Team Th15 EFFORTLOGGER V2
+//Description: 	This file measures how long the desktop application takes to show its login panel. Each startup phase
+//				is marked with the time since main() began; with -Deffortlogger.startupTrace=true the phases are
+//				printed as they happen. The time to the painted login panel is checked against a budget
+//				(-Deffortlogger.startupBudgetMillis, 1500 by default), and a warning is printed whenever it is
+//				exceeded, so slow startups are noticed even when tracing is off.
+
+
+import java.lang.management.ManagementFactory;
+
+public class StartupTrace {
+
+    // Whether every phase is printed
+    private static final boolean ENABLED = Boolean.getBoolean("effortlogger.startupTrace");
+
+    // Longest acceptable time from main() to the painted login panel
+    private static final long BUDGET_MILLIS = Long.getLong("effortlogger.startupBudgetMillis", 1500);
+
+    // Time main() began; the class is initialized by the first mark in main()
+    private static final long startNanos = System.nanoTime();
+
+    private static volatile boolean finished = false;
+
+    /**
+     * Records that a startup phase was reached. The first mark also reports how long the JVM ran before main().
+     *
+     * @param phase Description of the phase.
+     */
+    public static void mark(String phase)
+    {
+        if (ENABLED)
+        {
+            if (phase.equals("main"))
+            {
+                // Only read when tracing, since the management classes take time to load
+                long jvmMillis = ManagementFactory.getRuntimeMXBean().getUptime();
+                System.err.printf("[startup] JVM ran %d ms before main%n", jvmMillis);
+            }
+            System.err.printf("[startup] %6d ms  %s%n", elapsedMillis(), phase);
+        }
+    }
+
+    /**
+     * Records that the login panel was painted and checks the time it took against the budget.
+     * Only the first call counts.
+     *
+     * @param phase Description of the phase.
+     * @return Milliseconds from main() to this phase.
+     */
+    public static long finish(String phase)
+    {
+        long elapsed = elapsedMillis();
+        if (finished)
+        {
+            return elapsed;
+        }
+        finished = true;
+
+        mark(phase);
+        if (elapsed > BUDGET_MILLIS)
+        {
+            System.err.printf("[startup] Login panel took %d ms, over the budget of %d ms%n", elapsed, BUDGET_MILLIS);
+        }
+        return elapsed;
+    }
+
+    /**
+     * @return Milliseconds since main() began.
+     */
+    private static long elapsedMillis()
+    {
+        return (System.nanoTime() - startNanos) / 1_000_000;
+    }
+}
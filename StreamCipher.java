@@ -0,0 +1,42 @@
+package EffortLogger;
+
+//
+//File Name: StreamCipher.java
+//Creator: Team Th15
+//Last Updated: 10/18/2026
+//Project: CSE360 Team Th15 EFFORTLOGGER V2
+//Description: 	This file defines how a cipher transforms a stream of data. An implementation reads from one channel and
+//				writes to another through fixed-size buffers, so files of any size are processed in constant memory.
+//				EncryptDecrypt uses the Caesar implementation for the application's files; other implementations,
+//				such as the authenticated AES-GCM one, can be used wherever a file is encrypted or decrypted.
+
+
+import java.io.IOException;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+
+public interface StreamCipher {
+
+    // Size of the buffers data is processed in
+    int BUFFER_SIZE = 64 * 1024;
+
+    /**
+     * Encrypts everything readable from a channel and writes the result to another channel.
+     * Neither channel is closed.
+     *
+     * @param in  The unencrypted data.
+     * @param out Receives the encrypted data.
+     * @throws IOException If reading or writing fails, or the data cannot be encrypted.
+     */
+    void encrypt(ReadableByteChannel in, WritableByteChannel out) throws IOException;
+
+    /**
+     * Decrypts everything readable from a channel and writes the result to another channel.
+     * Neither channel is closed.
+     *
+     * @param in  The encrypted data.
+     * @param out Receives the decrypted data.
+     * @throws IOException If reading or writing fails, or the data is not valid for this cipher.
+     */
+    void decrypt(ReadableByteChannel in, WritableByteChannel out) throws IOException;
+}
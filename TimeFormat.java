@@ -0,0 +1,165 @@
+package EffortLogger;
+
+//
+//File Name: TimeFormat.java
+//Creator: Team Th15
+//Last Updated: 10/18/2026
+//Project: CSE360 Team Th15 EFFORTLOGGER V2
+//Description: 	This file contains the time and date formatting used by the effort clock and the effort log viewer.
+//				Times are written digit by digit from a lookup table into a small char array, and the time zone rules
+//				and the formatted current date are cached. Unlike SimpleDateFormat, every method is safe to call from
+//				many threads at once, and formatting a time creates nothing but the resulting string.
+
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.zone.ZoneRules;
+
+public class TimeFormat {
+
+    // Two-character strings "00" to "99", so each time component is copied rather than computed
+    private static final char[] TENS = new char[100];
+    private static final char[] ONES = new char[100];
+
+    static
+    {
+        for (int i = 0; i < 100; i++)
+        {
+            TENS[i] = (char) ('0' + i / 10);
+            ONES[i] = (char) ('0' + i % 10);
+        }
+    }
+
+    private static final long MILLIS_PER_DAY = 24L * 60 * 60 * 1000;
+
+    // Time zone rules of the system default zone, looked up once
+    private static final ZoneRules zoneRules = ZoneId.systemDefault().getRules();
+
+    // The most recently formatted date and the local day it belongs to
+    private static volatile CachedDate cachedDate = new CachedDate(Long.MIN_VALUE, "");
+
+    /**
+     * A formatted date together with the local epoch day it was formatted for.
+     */
+    private static class CachedDate
+    {
+        final long epochDay;
+        final String text;
+
+        CachedDate(long epochDay, String text)
+        {
+            this.epochDay = epochDay;
+            this.text = text;
+        }
+    }
+
+    //--------------------------------------------formatting methods--------------------------------------------------------------
+
+    /**
+     * Formats the local time of day of an instant as HH:mm:ss.
+     *
+     * @param epochMillis The instant, in milliseconds since the epoch.
+     * @return The formatted time.
+     */
+    public static String formatTime(long epochMillis)
+    {
+        long localMillis = toLocalMillis(epochMillis);
+        int secondOfDay = (int) (Math.floorMod(localMillis, MILLIS_PER_DAY) / 1000);
+
+        char[] chars = new char[8];
+        writeHms(chars, secondOfDay / 3600, (secondOfDay / 60) % 60, secondOfDay % 60);
+        return new String(chars);
+    }
+
+    /**
+     * Formats the local date of an instant as MM/dd/yyyy. The last formatted date is cached, so formatting
+     * many instants from the same day returns the same string.
+     *
+     * @param epochMillis The instant, in milliseconds since the epoch.
+     * @return The formatted date.
+     */
+    public static String formatDate(long epochMillis)
+    {
+        long epochDay = Math.floorDiv(toLocalMillis(epochMillis), MILLIS_PER_DAY);
+
+        CachedDate cached = cachedDate;
+        if (cached.epochDay == epochDay)
+        {
+            return cached.text;
+        }
+
+        LocalDate date = LocalDate.ofEpochDay(epochDay);
+        int year = date.getYear();
+
+        char[] chars = new char[10];
+        chars[0] = TENS[date.getMonthValue()];
+        chars[1] = ONES[date.getMonthValue()];
+        chars[2] = '/';
+        chars[3] = TENS[date.getDayOfMonth()];
+        chars[4] = ONES[date.getDayOfMonth()];
+        chars[5] = '/';
+        chars[6] = TENS[(year / 100) % 100];
+        chars[7] = ONES[(year / 100) % 100];
+        chars[8] = TENS[year % 100];
+        chars[9] = ONES[year % 100];
+
+        String text = new String(chars);
+        cachedDate = new CachedDate(epochDay, text);
+        return text;
+    }
+
+    /**
+     * Formats a duration as HH:mm:ss. Durations of 100 hours or more get as many hour digits as needed.
+     *
+     * @param durationMillis The duration in milliseconds; negative durations are shown as zero.
+     * @return The formatted duration.
+     */
+    public static String formatDuration(long durationMillis)
+    {
+        long totalSeconds = Math.max(0, durationMillis) / 1000;
+        long hours = totalSeconds / 3600;
+        int minutes = (int) ((totalSeconds / 60) % 60);
+        int seconds = (int) (totalSeconds % 60);
+
+        if (hours >= 100)
+        {
+            return hours + ":" + TENS[minutes] + ONES[minutes] + ":" + TENS[seconds] + ONES[seconds];
+        }
+
+        char[] chars = new char[8];
+        writeHms(chars, (int) hours, minutes, seconds);
+        return new String(chars);
+    }
+
+    /**
+     * Writes hours, minutes, and seconds, each below 100, as HH:mm:ss into the first 8 characters of an array.
+     *
+     * @param chars   The array to write into.
+     * @param hours   The hours.
+     * @param minutes The minutes.
+     * @param seconds The seconds.
+     */
+    private static void writeHms(char[] chars, int hours, int minutes, int seconds)
+    {
+        chars[0] = TENS[hours];
+        chars[1] = ONES[hours];
+        chars[2] = ':';
+        chars[3] = TENS[minutes];
+        chars[4] = ONES[minutes];
+        chars[5] = ':';
+        chars[6] = TENS[seconds];
+        chars[7] = ONES[seconds];
+    }
+
+    /**
+     * Shifts an instant by the system time zone's offset at that instant.
+     *
+     * @param epochMillis The instant, in milliseconds since the epoch.
+     * @return The local wall-clock time, in milliseconds since the local epoch.
+     */
+    private static long toLocalMillis(long epochMillis)
+    {
+        return epochMillis + zoneRules.getOffset(Instant.ofEpochMilli(epochMillis)).getTotalSeconds() * 1000L;
+    }
+}
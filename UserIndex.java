@@ -0,0 +1,477 @@
+package EffortLogger;
+
+//
+//File Name: UserIndex.java
+//Creator: Team Th15
+//Last Updated: 10/18/2026
+//Project: CSE360 Team Th15 EFFORTLOGGER V2
+//Description: 	This file maintains a persistent username to user file index for the user_info_encrypted directory.
+//				Logins look the username up in the index and read only the credential header of a single file,
+//				instead of reading every user file in the directory. A username missing from the index is unknown: the
+//				directory is only looked at again if its modification time changed since the last refresh(), which
+//				then re-reads only files that are new or changed, so unknown usernames never cost a directory scan.
+//				The credential header holds a salted hash of the password (see CredentialVerifier), never the password
+//				itself; the index keeps a copy of the hash, so logins are verified against it without opening the file.
+
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Set;
+import java.io.File;
+
+public class UserIndex {
+
+    // Name of the index file, stored next to the user_info_encrypted directory
+    private static final String INDEX_FILE_NAME = "user_info_index.txt";
+
+    // Maximum number of characters read from a user file while looking for the credential header
+    private static final int MAX_HEADER_CHARS = 4096;
+
+    // Encrypted username -> index entry for the file holding that user's credentials
+    private static final Map<String, Entry> entries = new HashMap<>();
+
+    // File name -> encrypted username, so a changed file can replace its old entry directly
+    private static final Map<String, String> usersByFile = new HashMap<>();
+
+    // Whether the on-disk index has been loaded into memory
+    private static boolean loaded = false;
+
+    // Modification time of the user_info_encrypted directory when it was last refreshed, -1 before the first refresh.
+    // Adding, removing, or renaming a user file changes it, so while it is unchanged an index miss is authoritative.
+    private static long refreshedFolderModified = -1;
+
+    /**
+     * A single index entry: the user file name, the modification time it had when its header was read,
+     * and the password hash of its header (null if the file has not been migrated to a hash yet).
+     */
+    private static class Entry
+    {
+        final String fileName;
+        final long lastModified;
+        final String passwordHash;
+
+        Entry(String fileName, long lastModified, String passwordHash)
+        {
+            this.fileName = fileName;
+            this.lastModified = lastModified;
+            this.passwordHash = passwordHash;
+        }
+    }
+
+    /**
+     * The credential header of a user file, decrypted. New headers hold a password hash; headers written before
+     * hashes existed hold the password itself until the migration (see UserStorage) replaces it with its hash.
+     */
+    public static class CredentialHeader
+    {
+        public final String userName;
+        public final String password;     // Plain password of a header not migrated yet, or null
+        public final String passwordHash; // Hash record written by CredentialVerifier.hash(), or null
+
+        // Number of decrypted characters that make up the header, including its final line break
+        public final int length;
+
+        CredentialHeader(String userName, String password, String passwordHash, int length)
+        {
+            this.userName = userName;
+            this.password = password;
+            this.passwordHash = passwordHash;
+            this.length = length;
+        }
+    }
+
+    //--------------------------------------------lookup methods--------------------------------------------------------------
+
+    /**
+     * Finds the user file holding the credentials of the specified user and checks the password against the hash
+     * in its credential header. The hash is kept in the index, so while the indexed file is unchanged it is the
+     * user's only file and the password is checked without opening it; a wrong password fails right away.
+     * If the indexed file changed, only its header is read again. A user missing from the index does not exist,
+     * unless files were added to the directory since the last refresh; only then is the directory refreshed, which
+     * opens just the new and changed files.
+     * Files that still hold a plain password are never accepted; run the migration to replace it with its hash.
+     * Only the index lookup holds the index's lock. The key derivation runs after it is released, so logins of
+     * different users are verified in parallel.
+     *
+     * @param userName The username to search for.
+     * @param password The password to check.
+     * @return The path of the user file if the credentials match, null otherwise.
+     * @throws IOException If an I/O error occurs.
+     */
+    public static Path findUserFile(String userName, String password) throws IOException
+    {
+        Entry entry = findEntry(EncryptDecrypt.encryptString(userName));
+        return entry != null && matches(entry, password) ? getUserFolder().resolve(entry.fileName) : null;
+    }
+
+    /**
+     * Retrieves a user's up-to-date index entry, refreshing the index first if the user is missing and the
+     * directory changed since the last refresh. Entries are immutable, so the result can be used without the lock.
+     *
+     * @param encryptedUserName The encrypted username.
+     * @return The entry, or null if the user is unknown.
+     * @throws IOException If an I/O error occurs.
+     */
+    private static synchronized Entry findEntry(String encryptedUserName) throws IOException
+    {
+        load();
+
+        Entry entry = currentEntry(encryptedUserName);
+        if (entry == null && getUserFolder().toFile().lastModified() != refreshedFolderModified)
+        {
+            refresh();
+            entry = currentEntry(encryptedUserName);
+        }
+        return entry;
+    }
+
+    /**
+     * Retrieves a user's index entry, reading the header of the user's file again if the file changed since it
+     * was indexed. Entries of files that were deleted or no longer hold a credential header are dropped.
+     *
+     * @param encryptedUserName The encrypted username.
+     * @return The up-to-date entry, or null if the user is not indexed or the file no longer holds the user.
+     * @throws IOException If an I/O error occurs.
+     */
+    private static Entry currentEntry(String encryptedUserName) throws IOException
+    {
+        Entry entry = entries.get(encryptedUserName);
+        if (entry == null)
+        {
+            return null;
+        }
+
+        File userFile = getUserFolder().resolve(entry.fileName).toFile();
+        if (userFile.isFile() && userFile.lastModified() == entry.lastModified)
+        {
+            return entry;
+        }
+
+        // The file changed since it was indexed; if it still holds the user, its entry is replaced
+        if (!userFile.isFile() || !indexFile(userFile))
+        {
+            entries.remove(encryptedUserName);
+            usersByFile.remove(entry.fileName);
+        }
+        save();
+
+        entry = entries.get(encryptedUserName);
+        return entry != null && entry.fileName.equals(userFile.getName()) ? entry : null;
+    }
+
+    /**
+     * Checks a password against the hash of an index entry.
+     *
+     * @param entry    The user's index entry.
+     * @param password The password to check.
+     * @return true if the entry has a hash and the password matches it.
+     */
+    private static boolean matches(Entry entry, String password)
+    {
+        return entry.passwordHash != null && CredentialVerifier.matches(password, entry.passwordHash);
+    }
+
+    /**
+     * Looks up the user file indexed for the specified username without reading it.
+     *
+     * @param userName The username to look up.
+     * @return The indexed user file, or null if the user is not indexed or the file no longer exists.
+     * @throws IOException If an I/O error occurs while loading the index.
+     */
+    public static synchronized Path lookup(String userName) throws IOException
+    {
+        load();
+
+        Entry entry = entries.get(EncryptDecrypt.encryptString(userName));
+        if (entry == null)
+        {
+            return null;
+        }
+
+        Path userFile = getUserFolder().resolve(entry.fileName);
+        if (!Files.isRegularFile(userFile))
+        {
+            return null;
+        }
+
+        return userFile;
+    }
+
+    /**
+     * Adds or replaces the index entry for a user file by reading its credential header.
+     *
+     * @param userFile The user file to index.
+     * @throws IOException If an I/O error occurs.
+     */
+    public static synchronized void put(Path userFile) throws IOException
+    {
+        load();
+
+        if (indexFile(userFile.toFile()))
+        {
+            save();
+        }
+    }
+
+    //--------------------------------------------maintenance methods--------------------------------------------------------------
+
+    /**
+     * Brings the index up to date with the user_info_encrypted directory. Only files that are not indexed yet,
+     * or whose modification time changed since they were indexed, are opened. Entries for deleted files are dropped.
+     *
+     * @throws IOException If an I/O error occurs.
+     */
+    public static synchronized void refresh() throws IOException
+    {
+        load();
+
+        // The time is taken before listing, so files added during the listing are looked for again
+        File folder = getUserFolder().toFile();
+        long folderModified = folder.lastModified();
+        File[] listOfFiles = folder.listFiles();
+
+        // Check if the folder is empty or if an I/O error occurred
+        if (listOfFiles == null)
+        {
+            refreshedFolderModified = folderModified;
+            return;
+        }
+
+        boolean changed = false;
+        Set<String> presentFiles = new HashSet<>();
+
+        for (File file : listOfFiles)
+        {
+            if (!file.isFile())
+            {
+                continue;
+            }
+
+            presentFiles.add(file.getName());
+
+            String indexedUser = usersByFile.get(file.getName());
+            if (indexedUser == null || entries.get(indexedUser).lastModified != file.lastModified())
+            {
+                changed |= indexFile(file);
+            }
+        }
+
+        // Drop entries whose files were deleted
+        Iterator<Entry> iterator = entries.values().iterator();
+        while (iterator.hasNext())
+        {
+            Entry entry = iterator.next();
+            if (!presentFiles.contains(entry.fileName))
+            {
+                iterator.remove();
+                usersByFile.remove(entry.fileName);
+                changed = true;
+            }
+        }
+
+        if (changed)
+        {
+            save();
+        }
+        refreshedFolderModified = folderModified;
+    }
+
+    /**
+     * Reads and indexes the credential header of a single user file.
+     *
+     * @param file The user file to index.
+     * @return true if the index changed, false otherwise.
+     * @throws IOException If an I/O error occurs.
+     */
+    private static boolean indexFile(File file) throws IOException
+    {
+        CredentialHeader header = readCredentialHeader(file.toPath());
+        if (header == null)
+        {
+            return false;
+        }
+
+        // Remove any stale entry that still points at this file under a different username
+        String previousUser = usersByFile.remove(file.getName());
+        if (previousUser != null)
+        {
+            entries.remove(previousUser);
+        }
+
+        String encryptedUserName = EncryptDecrypt.encryptString(header.userName);
+        Entry previousEntry = entries.put(encryptedUserName, new Entry(file.getName(), file.lastModified(), header.passwordHash));
+        if (previousEntry != null)
+        {
+            usersByFile.remove(previousEntry.fileName);
+        }
+        usersByFile.put(file.getName(), encryptedUserName);
+        return true;
+    }
+
+    /**
+     * Reads the credential header from the start of an encrypted user file: the "Username: " line and either the
+     * "PasswordHash: " line or, in a file not migrated yet, the "Password: " line.
+     * Reading stops as soon as both lines are found, so the effort log that follows the header is never read.
+     *
+     * @param userFile The encrypted user file.
+     * @return The decrypted credential header, or null if the file does not start with one.
+     * @throws IOException If an I/O error occurs.
+     */
+    public static CredentialHeader readCredentialHeader(Path userFile) throws IOException
+    {
+        String userName = null;
+        String password = null;
+        String passwordHash = null;
+        StringBuilder line = new StringBuilder();
+        int charsRead = 0;
+
+        try (BufferedReader reader = Files.newBufferedReader(userFile, StandardCharsets.UTF_8))
+        {
+            int encryptedChar;
+            while (charsRead < MAX_HEADER_CHARS && (encryptedChar = reader.read()) != -1)
+            {
+                charsRead++;
+
+                // Undo the Caesar cipher shift one character at a time
+                char decryptedChar = (char) (encryptedChar - EncryptDecrypt.CAESAR_KEY);
+
+                if (decryptedChar != '\n')
+                {
+                    line.append(decryptedChar);
+                    continue;
+                }
+
+                // A full line was read; strip the carriage return of Windows line endings
+                String decryptedLine = line.toString();
+                if (decryptedLine.endsWith("\r"))
+                {
+                    decryptedLine = decryptedLine.substring(0, decryptedLine.length() - 1);
+                }
+                line.setLength(0);
+
+                if (decryptedLine.startsWith("Username: "))
+                {
+                    userName = decryptedLine.substring("Username: ".length());
+                }
+                else if (decryptedLine.startsWith("Password: "))
+                {
+                    password = decryptedLine.substring("Password: ".length());
+                }
+                else if (decryptedLine.startsWith("PasswordHash: "))
+                {
+                    passwordHash = decryptedLine.substring("PasswordHash: ".length());
+                }
+
+                if (userName != null && (password != null || passwordHash != null))
+                {
+                    return new CredentialHeader(userName, password, passwordHash, charsRead);
+                }
+            }
+        }
+
+        // Accept a password or hash on the last line of a file without a trailing line break
+        if (userName != null && line.toString().startsWith("Password: "))
+        {
+            return new CredentialHeader(userName, line.substring("Password: ".length()), null, charsRead);
+        }
+        if (userName != null && line.toString().startsWith("PasswordHash: "))
+        {
+            return new CredentialHeader(userName, null, line.substring("PasswordHash: ".length()), charsRead);
+        }
+
+        return null;
+    }
+
+    //--------------------------------------------persistence methods--------------------------------------------------------------
+
+    /**
+     * Loads the index from disk the first time it is needed.
+     *
+     * @throws IOException If an I/O error occurs.
+     */
+    private static void load() throws IOException
+    {
+        if (loaded)
+        {
+            return;
+        }
+
+        loaded = true;
+        Path indexPath = getIndexPath();
+        if (!Files.exists(indexPath))
+        {
+            return;
+        }
+
+        // Each line holds: encrypted username, file name, modification time, and the password hash if recorded,
+        // separated by tabs
+        for (String line : Files.readAllLines(indexPath, StandardCharsets.UTF_8))
+        {
+            String[] fields = line.split("\t");
+            if (fields.length == 3 || fields.length == 4)
+            {
+                try
+                {
+                    entries.put(fields[0], new Entry(fields[1], Long.parseLong(fields[2]), fields.length == 4 ? fields[3] : null));
+                    usersByFile.put(fields[1], fields[0]);
+                }
+                catch (NumberFormatException e)
+                {
+                    // Skip damaged lines; the next refresh re-indexes the file
+                }
+            }
+        }
+    }
+
+    /**
+     * Writes the index to disk, replacing the previous version atomically.
+     *
+     * @throws IOException If an I/O error occurs.
+     */
+    private static void save() throws IOException
+    {
+        StringBuilder content = new StringBuilder();
+        for (Map.Entry<String, Entry> entry : entries.entrySet())
+        {
+            content.append(entry.getKey()).append('\t')
+                   .append(entry.getValue().fileName).append('\t')
+                   .append(entry.getValue().lastModified);
+            if (entry.getValue().passwordHash != null)
+            {
+                content.append('\t').append(entry.getValue().passwordHash);
+            }
+            content.append('\n');
+        }
+
+        Path indexPath = getIndexPath();
+        Path tempPath = indexPath.resolveSibling(INDEX_FILE_NAME + ".tmp");
+        Files.writeString(tempPath, content, StandardCharsets.UTF_8);
+        Files.move(tempPath, indexPath, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Retrieves the directory holding the encrypted user files.
+     *
+     * @return Path to the user_info_encrypted directory.
+     */
+    private static Path getUserFolder()
+    {
+        return Paths.get(System.getProperty("user.dir"), "user_info_encrypted");
+    }
+
+    /**
+     * Retrieves the path of the index file.
+     *
+     * @return Path to the index file.
+     */
+    private static Path getIndexPath()
+    {
+        return Paths.get(System.getProperty("user.dir"), INDEX_FILE_NAME);
+    }
+}
@@ -0,0 +1,324 @@
+package EffortLogger;
+
+//
+//File Name: UserStorage.java
+//Creator: Team Th15
+//Last Updated: 10/18/2026
+//Project: CSE360 Team Th15 EFFORTLOGGER V2
+//Description: 	This file defines the storage layout for user data. Credentials stay in user_info_encrypted, while each
+//				user's effort log is kept in a separate file in user_logs_encrypted, so logins never read log data.
+//				Credential files hold a salted hash of the password, written when the account is created. It also
+//				contains the migration tool that splits older user files, which held both, into the two parts, replaces
+//				the password older files kept with its hash, and carries old unstructured log entries over into the
+//				EffortRecord format. Efforts are logged into
+//				weekly segments of the log (see EffortSegments); the migration also moves efforts from the single log
+//				file used before segments existed into their weeks' segments.
+
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.time.LocalDate;
+import java.util.regex.Matcher;
+import java.io.File;
+
+public class UserStorage {
+
+    // Directory holding the encrypted credential files
+    public static final String USER_FOLDER_NAME = "user_info_encrypted";
+
+    // Directory holding the encrypted effort logs
+    public static final String LOG_FOLDER_NAME = "user_logs_encrypted";
+
+    //--------------------------------------------layout methods--------------------------------------------------------------
+
+    /**
+     * Retrieves the undated effort log file that belongs to a user credential file.
+     * For "user_info_encrypted/Name_encrypted.txt" this is "user_logs_encrypted/Name_log_encrypted.dat".
+     * The log holds records in the EffortRecord format: the entries carried over from the old text formats, and
+     * efforts logged before the log was split into weekly segments until the migration moves them.
+     *
+     * @param userFile The user's credential file.
+     * @return Path to the user's effort log file (which may not exist yet).
+     */
+    public static Path getLogFile(Path userFile)
+    {
+        return getLogFolder(userFile).resolve(getBaseName(userFile) + "_log_encrypted.dat");
+    }
+
+    /**
+     * Retrieves the log segment holding the efforts a user started in one week.
+     * For "user_info_encrypted/Name_encrypted.txt" and the week of 2026-10-12 this is
+     * "user_logs_encrypted/Name_log_2026-10-12.dat".
+     *
+     * @param userFile  The user's credential file.
+     * @param weekStart Monday of the week.
+     * @return Path to the segment file (which may not exist yet).
+     */
+    public static Path getSegmentFile(Path userFile, LocalDate weekStart)
+    {
+        return getLogFolder(userFile).resolve(getSegmentPrefix(userFile) + weekStart + ".dat");
+    }
+
+    /**
+     * Retrieves the compacted form of a week's log segment, written by the compactor once the week is over.
+     *
+     * @param userFile  The user's credential file.
+     * @param weekStart Monday of the week.
+     * @return Path to the compacted segment file (which may not exist yet).
+     */
+    public static Path getCompactedSegmentFile(Path userFile, LocalDate weekStart)
+    {
+        return getLogFolder(userFile).resolve(getSegmentPrefix(userFile) + weekStart + "_compacted.dat");
+    }
+
+    /**
+     * Retrieves the start of the file names of a user's log segments, e.g. "Name_log_".
+     *
+     * @param userFile The user's credential file.
+     * @return The file name prefix.
+     */
+    public static String getSegmentPrefix(Path userFile)
+    {
+        return getBaseName(userFile) + "_log_";
+    }
+
+    /**
+     * Retrieves the unstructured text log written before the EffortRecord format existed.
+     * The migration converts it into the record log.
+     *
+     * @param userFile The user's credential file.
+     * @return Path to the user's old text log file (which may not exist).
+     */
+    public static Path getLegacyLogFile(Path userFile)
+    {
+        return getLogFolder(userFile).resolve(getBaseName(userFile) + "_log_encrypted.txt");
+    }
+
+    /**
+     * Retrieves the sidecar file holding the next effort sequence number of a user, next to the user's log file.
+     * For "user_info_encrypted/Name_encrypted.txt" this is "user_logs_encrypted/Name_log_sequence.txt".
+     *
+     * @param userFile The user's credential file.
+     * @return Path to the user's sequence file (which may not exist yet).
+     */
+    public static Path getSequenceFile(Path userFile)
+    {
+        return getLogFolder(userFile).resolve(getBaseName(userFile) + "_log_sequence.txt");
+    }
+
+    /**
+     * Retrieves the sidecar file holding the precomputed effort totals of a user, next to the user's log file.
+     * For "user_info_encrypted/Name_encrypted.txt" this is "user_logs_encrypted/Name_log_aggregates.txt".
+     *
+     * @param userFile The user's credential file.
+     * @return Path to the user's aggregate file (which may not exist yet).
+     */
+    public static Path getAggregateFile(Path userFile)
+    {
+        return getLogFolder(userFile).resolve(getBaseName(userFile) + "_log_aggregates.txt");
+    }
+
+    /**
+     * Retrieves the directory holding the effort logs, next to the directory of the credential file.
+     *
+     * @param userFile The user's credential file.
+     * @return Path to the user_logs_encrypted directory.
+     */
+    public static Path getLogFolder(Path userFile)
+    {
+        return userFile.toAbsolutePath().getParent().resolveSibling(LOG_FOLDER_NAME);
+    }
+
+    /**
+     * Strips the "_encrypted.txt" suffix from a credential file name.
+     *
+     * @param userFile The user's credential file.
+     * @return The user file's base name.
+     */
+    private static String getBaseName(Path userFile)
+    {
+        String userFileName = userFile.getFileName().toString();
+        return userFileName.replaceFirst("_encrypted\\.txt$", "").replaceFirst("[.][^.]+$", "");
+    }
+
+    //--------------------------------------------account methods--------------------------------------------------------------
+
+    /**
+     * Creates an account: writes a credential file whose header holds the hash of the password, never the password
+     * itself, and adds it to the login index.
+     *
+     * @param userFile The credential file to write, replaced if it exists.
+     * @param name     The user's full name.
+     * @param userName The username.
+     * @param password The password.
+     * @throws IOException If an I/O error occurs.
+     */
+    public static void createUserFile(Path userFile, String name, String userName, String password) throws IOException
+    {
+        String header = "Name: " + name + "\nUsername: " + userName + "\nPasswordHash: " + CredentialVerifier.hash(password) + "\n";
+
+        Files.createDirectories(userFile.toAbsolutePath().getParent());
+        Path tempFile = userFile.resolveSibling(userFile.getFileName() + ".tmp");
+        Files.writeString(tempFile, EncryptDecrypt.encryptString(header), StandardCharsets.UTF_8);
+        Files.move(tempFile, userFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+
+        UserIndex.put(userFile);
+    }
+
+    //--------------------------------------------migration methods--------------------------------------------------------------
+
+    /**
+     * Runs the migration from the command line.
+     *
+     * @param args Command line arguments (not used here).
+     * @throws IOException If an I/O error occurs.
+     */
+    public static void main(String[] args) throws IOException
+    {
+        int migratedFiles = migrate();
+        System.out.println("Migrated " + migratedFiles + " file(s).");
+    }
+
+    /**
+     * Splits every user file in user_info_encrypted that still contains effort log entries after its credential header.
+     * The log entries are appended to the user's log file as text records and the user file is cut back to the header.
+     * A header that still holds the password gets its hash instead, since logins are only checked against the hash.
+     * Old text log files in user_logs_encrypted are converted the same way and then removed, and efforts in the
+     * undated log are moved into the weekly segments.
+     * Files that only contain a hashed header are left untouched, so running the migration again is safe.
+     *
+     * @return The number of user files split or hashed plus the number of text logs converted.
+     * @throws IOException If an I/O error occurs.
+     */
+    public static int migrate() throws IOException
+    {
+        Path encryptedFolderPath = Paths.get(System.getProperty("user.dir"), USER_FOLDER_NAME);
+        File[] listOfFiles = encryptedFolderPath.toFile().listFiles();
+
+        // Check if the folder is empty or if an I/O error occurred
+        if (listOfFiles == null)
+        {
+            return 0;
+        }
+
+        int migratedFiles = 0;
+        for (File file : listOfFiles)
+        {
+            if (file.isFile() && migrateUserFile(file.toPath()))
+            {
+                migratedFiles++;
+            }
+
+            if (file.isFile() && migrateLegacyLog(file.toPath()))
+            {
+                migratedFiles++;
+            }
+
+            if (file.isFile() && EffortSegments.partitionLegacyLog(file.toPath()))
+            {
+                migratedFiles++;
+            }
+        }
+
+        // The split files changed on disk, so bring the login index up to date
+        if (migratedFiles > 0)
+        {
+            UserIndex.refresh();
+        }
+
+        return migratedFiles;
+    }
+
+    /**
+     * Splits a single user file into its credential header and its effort log, and replaces the password in the
+     * header with its hash.
+     *
+     * @param userFile The user file to migrate.
+     * @return true if log entries were moved out of the file or the password was hashed, false otherwise.
+     * @throws IOException If an I/O error occurs.
+     */
+    private static boolean migrateUserFile(Path userFile) throws IOException
+    {
+        UserIndex.CredentialHeader header = UserIndex.readCredentialHeader(userFile);
+        if (header == null)
+        {
+            System.out.println("Skipping file without a credential header: " + userFile);
+            return false;
+        }
+
+        // The cipher maps characters one to one, so the header has the same length in encrypted form
+        String encryptedContent = Files.readString(userFile, StandardCharsets.UTF_8);
+        boolean hasLog = encryptedContent.length() > header.length;
+        if (!hasLog && header.password == null)
+        {
+            return false;
+        }
+
+        String encryptedHeader = encryptedContent.substring(0, Math.min(header.length, encryptedContent.length()));
+
+        // Append the log entries first, so an interrupted migration never loses them
+        if (hasLog)
+        {
+            appendTextRecords(getLogFile(userFile), encryptedContent.substring(header.length));
+        }
+
+        // Replace the password line with the hash line; the other header lines are kept as they are
+        if (header.password != null)
+        {
+            String passwordHashLine = "PasswordHash: " + CredentialVerifier.hash(header.password);
+            encryptedHeader = EncryptDecrypt.encryptString(EncryptDecrypt.decryptString(encryptedHeader)
+                    .replaceAll("(?m)^Password: [^\r\n]*", Matcher.quoteReplacement(passwordHashLine)));
+        }
+
+        // Replace the user file with its header only
+        Path tempFile = userFile.resolveSibling(userFile.getFileName() + ".tmp");
+        Files.writeString(tempFile, encryptedHeader, StandardCharsets.UTF_8);
+        Files.move(tempFile, userFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+
+        return true;
+    }
+
+    /**
+     * Converts a user's old text log file into records in the user's record log, then deletes the text log.
+     *
+     * @param userFile The user's credential file.
+     * @return true if a text log was converted, false otherwise.
+     * @throws IOException If an I/O error occurs.
+     */
+    private static boolean migrateLegacyLog(Path userFile) throws IOException
+    {
+        Path legacyLogFile = getLegacyLogFile(userFile);
+        if (!Files.exists(legacyLogFile))
+        {
+            return false;
+        }
+
+        appendTextRecords(getLogFile(userFile), Files.readString(legacyLogFile, StandardCharsets.UTF_8));
+        Files.delete(legacyLogFile);
+        return true;
+    }
+
+    /**
+     * Appends encrypted, newline-separated log entries to a record log, one text record per entry.
+     *
+     * @param logFile      The record log to append to.
+     * @param encryptedLog The encrypted log entries.
+     * @throws IOException If an I/O error occurs.
+     */
+    private static void appendTextRecords(Path logFile, String encryptedLog) throws IOException
+    {
+        ByteArrayOutputStream records = new ByteArrayOutputStream();
+        for (String entry : EncryptDecrypt.decryptString(encryptedLog).split("\r?\n"))
+        {
+            if (!entry.isEmpty())
+            {
+                records.write(EffortRecord.encodeText(entry));
+            }
+        }
+
+        Files.createDirectories(logFile.getParent());
+        Files.write(logFile, records.toByteArray(), StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+    }
+}
@@ -0,0 +1,270 @@
+package EffortLogger;
+
+//
+//File Name: VoteAccumulator.java
+//Creator: Team Th15
+//Last Updated: 10/18/2026
+//Project: CSE360 Team Th15 EFFORTLOGGER V2
+//Description: 	This file collects the card votes of a Planning Poker round and computes the estimate statistics from
+//				them. Votes are counted in a histogram over the fixed card deck instead of a list of boxed numbers, so
+//				every statistic (mean, median, mode, spread, and consensus) takes one pass over the eight cards no
+//				matter how many people vote. The histogram is also what gets saved with a finalized backlog item, so
+//				the statistics can be recomputed from the archive index without reading the item again.
+
+
+import java.util.Arrays;
+
+public class VoteAccumulator {
+
+    // Card values of the Planning Poker deck, in increasing order
+    public static final int[] DECK = {0, 1, 2, 3, 5, 8, 13, 20};
+
+    // Largest distance between the lowest and highest vote, in cards, that still counts as consensus
+    public static final int CONSENSUS_MAX_STEPS = 1;
+
+    // Number of votes for each card of the deck
+    private final int[] counts = new int[DECK.length];
+    private int voteCount = 0;
+    private long voteSum = 0;
+
+    //--------------------------------------------voting methods--------------------------------------------------------------
+
+    /**
+     * Counts a vote for a card.
+     *
+     * @param cardValue The value of the card voted for.
+     * @throws IllegalArgumentException If the value is not a card of the deck.
+     */
+    public void add(int cardValue)
+    {
+        add(cardValue, 1);
+    }
+
+    /**
+     * Counts several votes for the same card.
+     *
+     * @param cardValue The value of the card voted for.
+     * @param votes     Number of votes for the card.
+     * @throws IllegalArgumentException If the value is not a card of the deck or the number of votes is negative.
+     */
+    public void add(int cardValue, int votes)
+    {
+        int card = Arrays.binarySearch(DECK, cardValue);
+        if (card < 0)
+        {
+            throw new IllegalArgumentException("Not a Planning Poker card: " + cardValue);
+        }
+        if (votes < 0)
+        {
+            throw new IllegalArgumentException("Negative number of votes: " + votes);
+        }
+
+        counts[card] += votes;
+        voteCount += votes;
+        voteSum += (long) votes * cardValue;
+    }
+
+    /**
+     * Removes all votes, so the accumulator can be used for another round.
+     */
+    public void clear()
+    {
+        Arrays.fill(counts, 0);
+        voteCount = 0;
+        voteSum = 0;
+    }
+
+    //--------------------------------------------statistics methods--------------------------------------------------------------
+
+    /**
+     * @return Number of votes counted.
+     */
+    public int getVoteCount()
+    {
+        return voteCount;
+    }
+
+    /**
+     * @param cardValue The value of a card of the deck.
+     * @return Number of votes for that card, or 0 if it is not a card of the deck.
+     */
+    public int getCount(int cardValue)
+    {
+        int card = Arrays.binarySearch(DECK, cardValue);
+        return card < 0 ? 0 : counts[card];
+    }
+
+    /**
+     * @return The average vote, or 0 if there are no votes.
+     */
+    public double getMean()
+    {
+        return voteCount == 0 ? 0.0 : (double) voteSum / voteCount;
+    }
+
+    /**
+     * Computes the median vote. With an even number of votes, the two middle votes are averaged.
+     *
+     * @return The median vote, or 0 if there are no votes.
+     */
+    public double getMedian()
+    {
+        if (voteCount == 0)
+        {
+            return 0.0;
+        }
+
+        // Walk the histogram to the card holding each of the middle votes (0-based ranks)
+        int lowerRank = (voteCount - 1) / 2;
+        int upperRank = voteCount / 2;
+        return (cardAtRank(lowerRank) + cardAtRank(upperRank)) / 2.0;
+    }
+
+    /**
+     * Finds the most voted card. If several cards have the most votes, the highest of them is returned,
+     * so a tie leans towards the more careful estimate.
+     *
+     * @return The most voted card value, or 0 if there are no votes.
+     */
+    public int getMode()
+    {
+        int modeCard = 0;
+        for (int card = 1; card < DECK.length; card++)
+        {
+            if (counts[card] >= counts[modeCard] && counts[card] > 0)
+            {
+                modeCard = card;
+            }
+        }
+        return DECK[modeCard];
+    }
+
+    /**
+     * @return Difference between the highest and lowest vote, or 0 if there are no votes.
+     */
+    public int getSpread()
+    {
+        return voteCount == 0 ? 0 : DECK[highestCard()] - DECK[lowestCard()];
+    }
+
+    /**
+     * @return Number of cards between the lowest and highest vote on the deck, or 0 if there are no votes.
+     */
+    public int getSpreadSteps()
+    {
+        return voteCount == 0 ? 0 : highestCard() - lowestCard();
+    }
+
+    /**
+     * Checks whether the team reached consensus: every vote is on the same card or on neighbouring cards.
+     *
+     * @return true if there is at least one vote and the votes are at most CONSENSUS_MAX_STEPS cards apart.
+     */
+    public boolean isConsensus()
+    {
+        return voteCount > 0 && getSpreadSteps() <= CONSENSUS_MAX_STEPS;
+    }
+
+    private int cardAtRank(int rank)
+    {
+        int seen = 0;
+        for (int card = 0; card < DECK.length; card++)
+        {
+            seen += counts[card];
+            if (seen > rank)
+            {
+                return DECK[card];
+            }
+        }
+        return DECK[DECK.length - 1];
+    }
+
+    private int lowestCard()
+    {
+        int card = 0;
+        while (card < DECK.length - 1 && counts[card] == 0)
+        {
+            card++;
+        }
+        return card;
+    }
+
+    private int highestCard()
+    {
+        int card = DECK.length - 1;
+        while (card > 0 && counts[card] == 0)
+        {
+            card--;
+        }
+        return card;
+    }
+
+    //--------------------------------------------persistence methods--------------------------------------------------------------
+
+    /**
+     * Formats the statistics as lines of a finalized backlog item, ending with the "Votes: " histogram line
+     * that parse() reads back.
+     *
+     * @return The statistics lines, separated by newlines.
+     */
+    public String formatStatistics()
+    {
+        return String.format("Average Estimate: %.2f\nMedian Estimate: %.1f\nMode Estimate: %d\nSpread: %d\nConsensus: %s\nVotes: %s",
+                getMean(), getMedian(), getMode(), getSpread(), isConsensus() ? "Yes" : "No", formatCounts());
+    }
+
+    /**
+     * Formats the histogram as the vote counts of each card in deck order, separated by commas.
+     *
+     * @return The vote counts, e.g. "0,0,1,3,1,0,0,0".
+     */
+    public String formatCounts()
+    {
+        StringBuilder text = new StringBuilder();
+        for (int card = 0; card < DECK.length; card++)
+        {
+            if (card > 0)
+            {
+                text.append(',');
+            }
+            text.append(counts[card]);
+        }
+        return text.toString();
+    }
+
+    /**
+     * Rebuilds an accumulator from vote counts written by formatCounts().
+     *
+     * @param text The vote counts.
+     * @return The accumulator, or null if the text is not a valid histogram.
+     */
+    public static VoteAccumulator parse(String text)
+    {
+        String[] fields = text.trim().split(",");
+        if (fields.length != DECK.length)
+        {
+            return null;
+        }
+
+        VoteAccumulator votes = new VoteAccumulator();
+        try
+        {
+            for (int card = 0; card < DECK.length; card++)
+            {
+                int count = Integer.parseInt(fields[card].trim());
+                if (count < 0)
+                {
+                    return null;
+                }
+                votes.counts[card] = count;
+                votes.voteCount += count;
+                votes.voteSum += (long) count * DECK[card];
+            }
+        }
+        catch (NumberFormatException e)
+        {
+            return null;
+        }
+        return votes;
+    }
+}
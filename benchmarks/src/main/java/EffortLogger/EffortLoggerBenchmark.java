@@ -0,0 +1,423 @@
+package EffortLogger;
+
+//
+//File Name: EffortLoggerBenchmark.java
+//Creator: Team Th15
+//Last Updated: 10/18/2026
+//Project: CSE360 Team Th15 EFFORTLOGGER V2
+//Description: 	This file contains the JMH benchmarks of the hot paths of EffortLogger: the cipher, logging an effort, logging
+//				in, searching the Planning Poker archive, and reading an effort log. Each group of benchmarks has a state
+//				that generates its synthetic data in a scratch directory at the scales given by its @Param fields, so
+//				every benchmark is measured at several sizes. JMH reports the throughput and the latency percentiles of
+//				each operation, and the gc profiler, which main() always adds, the bytes allocated per operation.
+//
+//				Build and run it from the top of the repository with
+//				  mvn -B package
+//				  java -jar benchmarks/target/benchmarks.jar [JMH options, e.g. searchUserFiles -p users=1000]
+//				Every data directory is resolved against user.dir, which each state points at its own scratch
+//				directory, so the benchmarks must run forked (the default) and not with -f 0. The scratch directories
+//				are deleted after each trial, except the user files, which are kept for the next run.
+//
+//				The default scales keep a full run short. The full range of 1k to 1M files and 1 KB to 100 MB logs is
+//				measured with
+//				  java -jar benchmarks/target/benchmarks.jar -p users=1000,10000,100000,1000000
+//				    -p archiveItems=1000,10000,100000,1000000 -p logBytes=1024,1048576,104857600
+//				    -jvmArgsAppend -Deffortlogger.pbkdf2Iterations=1000
+//				where the lower iteration count only makes generating a million password hashes feasible; logins are
+//				then measured with that count too.
+
+
+import org.openjdk.jmh.Main;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.util.Comparator;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class EffortLoggerBenchmark {
+
+    // Words the synthetic data is made of
+    private static final String[] WORDS = {"login", "page", "signup", "form", "report", "export", "cache", "search", "table",
+            "chart", "api", "payment", "profile", "settings", "upload", "schema", "queue", "audit", "billing", "theme"};
+    private static final String[] LANGUAGES = {"Java", "Python", "Go", "Rust", "Kotlin", "TypeScript"};
+    private static final String[] LIFE_CYCLES = {"Planning", "Information Gathering", "Information Understanding", "Verifying",
+            "Outlining", "Drafting", "Finalizing", "Team Meeting", "Coach Meeting", "Stakeholder Meeting"};
+    private static final String[] CATEGORIES = {"Plans", "Deliverables", "Interruptions", "Defects", "Others"};
+
+    /**
+     * Runs JMH with the given command line options and the gc profiler, so the allocation rate is always reported.
+     *
+     * @param args JMH command line options, e.g. a benchmark name pattern or -l to list the benchmarks.
+     * @throws Exception If the options are invalid or a benchmark fails.
+     */
+    public static void main(String[] args) throws Exception
+    {
+        String[] options = new String[args.length + 2];
+        options[0] = "-prof";
+        options[1] = "gc";
+        System.arraycopy(args, 0, options, 2, args.length);
+        Main.main(options);
+    }
+
+    //--------------------------------------------state classes--------------------------------------------------------------
+
+    /**
+     * Random text and its encrypted form.
+     */
+    @State(Scope.Benchmark)
+    public static class CipherData
+    {
+        @Param({"1024", "65536"})
+        int textLength;
+
+        String plainText;
+        String encryptedText;
+
+        @Setup
+        public void setUp()
+        {
+            plainText = randomText(new Random(42), textLength);
+            encryptedText = EncryptDecrypt.encryptString(plainText);
+        }
+    }
+
+    /**
+     * A user with an effort that was timed once, so produceLog() can log it again without running the clock.
+     */
+    @State(Scope.Benchmark)
+    public static class EffortData
+    {
+        Path workDir;
+        EffortLogger logger;
+
+        @Setup
+        public void setUp() throws IOException
+        {
+            workDir = useDataDirectory(Files.createTempDirectory("effortlogger-bench-effort"));
+            logger = new EffortLogger(createBenchUser(workDir));
+            logger.startClock("Benchmark", LIFE_CYCLES[0], CATEGORIES[0], "Report");
+            logger.endClock();
+        }
+
+        @TearDown
+        public void tearDown() throws IOException
+        {
+            EffortLogWriter.closeAll();
+            EffortAggregates.saveAll();
+            deleteDirectory(workDir);
+        }
+    }
+
+    /**
+     * Indexed credential files of user0 to userN with the passwords password0 to passwordN.
+     * Deriving the hashes is slow, so the files are kept between runs in a directory per number of users.
+     */
+    @State(Scope.Benchmark)
+    public static class UserData
+    {
+        @Param({"1000", "10000"})
+        int users;
+
+        final Random random = new Random(42);
+
+        @Setup
+        public void setUp() throws IOException
+        {
+            Path workDir = useDataDirectory(Paths.get(System.getProperty("effortlogger.bench.dir",
+                    Paths.get(System.getProperty("java.io.tmpdir"), "effortlogger-bench").toString()), "users-" + users));
+            generateUsers(workDir, users, random);
+        }
+    }
+
+    /**
+     * An indexed Planning Poker archive of finalized backlog items.
+     */
+    @State(Scope.Benchmark)
+    public static class ArchiveData
+    {
+        @Param({"1000", "10000"})
+        int archiveItems;
+
+        final Random random = new Random(42);
+        Path workDir;
+
+        @Setup
+        public void setUp() throws IOException
+        {
+            workDir = useDataDirectory(Files.createTempDirectory("effortlogger-bench-archive"));
+            generateArchive(workDir, archiveItems, random);
+        }
+
+        @TearDown
+        public void tearDown() throws IOException
+        {
+            deleteDirectory(workDir);
+        }
+    }
+
+    /**
+     * A user whose effort log holds efforts spread over the past year.
+     */
+    @State(Scope.Benchmark)
+    public static class LogData
+    {
+        @Param({"1024", "1048576", "16777216"})
+        long logBytes;
+
+        Path workDir;
+        Path benchUser;
+
+        @Setup
+        public void setUp() throws IOException
+        {
+            workDir = useDataDirectory(Files.createTempDirectory("effortlogger-bench-log"));
+            benchUser = createBenchUser(workDir);
+            generateLog(benchUser, logBytes, new Random(42));
+        }
+
+        @TearDown
+        public void tearDown() throws IOException
+        {
+            deleteDirectory(workDir);
+        }
+    }
+
+    //--------------------------------------------benchmark methods--------------------------------------------------------------
+
+    @Benchmark
+    public String encryptString(CipherData data)
+    {
+        return EncryptDecrypt.encryptString(data.plainText);
+    }
+
+    @Benchmark
+    public String decryptString(CipherData data)
+    {
+        return EncryptDecrypt.decryptString(data.encryptedText);
+    }
+
+    /**
+     * Logs the prepared effort again: encodes it, queues it for the log, and updates the totals.
+     */
+    @Benchmark
+    public void produceLog(EffortData data)
+    {
+        data.logger.produceLog();
+    }
+
+    /**
+     * Times an effort from start to end; ending the clock logs it once.
+     */
+    @Benchmark
+    public void startAndEndClock(EffortData data) throws IOException
+    {
+        data.logger.startClock("Benchmark", LIFE_CYCLES[0], CATEGORIES[0], "Report");
+        data.logger.endClock();
+    }
+
+    @Benchmark
+    public Path searchUserFiles(UserData data) throws IOException
+    {
+        int user = data.random.nextInt(data.users);
+        return EncryptDecrypt.searchUserFiles("user" + user, "password" + user);
+    }
+
+    @Benchmark
+    public int searchPlanningPokerFiles(ArchiveData data) throws IOException
+    {
+        return EncryptDecrypt.searchPlanningPokerFiles(WORDS[data.random.nextInt(WORDS.length)]).size();
+    }
+
+    @Benchmark
+    public int planningPokerIndexSearch(ArchiveData data) throws IOException
+    {
+        return PlanningPokerIndex.search(WORDS[data.random.nextInt(WORDS.length)]).size();
+    }
+
+    @Benchmark
+    public EstimateSuggester.Suggestion suggestEstimate(ArchiveData data) throws IOException
+    {
+        return EstimateSuggester.suggest(WORDS[data.random.nextInt(WORDS.length)] + " page", "Project 3",
+                LANGUAGES[data.random.nextInt(LANGUAGES.length)], null, EstimateSuggester.DEFAULT_NEIGHBORS);
+    }
+
+    @Benchmark
+    public long readEffortLog(LogData data) throws IOException
+    {
+        long[] counters = {0};
+        EffortSegments.forEachRecord(data.benchUser, reader -> counters[0] += reader.counter());
+        return counters[0];
+    }
+
+    //--------------------------------------------data methods--------------------------------------------------------------
+
+    /**
+     * Points user.dir, which every data directory is resolved against, at a scratch directory.
+     *
+     * @param workDir The scratch directory.
+     * @return The scratch directory, as an absolute path.
+     * @throws IOException If the directory cannot be created.
+     */
+    private static Path useDataDirectory(Path workDir) throws IOException
+    {
+        workDir = workDir.toAbsolutePath();
+        Files.createDirectories(workDir);
+        System.setProperty("user.dir", workDir.toString());
+        return workDir;
+    }
+
+    /**
+     * Deletes a scratch directory and everything in it.
+     *
+     * @param workDir The scratch directory.
+     * @throws IOException If an I/O error occurs.
+     */
+    private static void deleteDirectory(Path workDir) throws IOException
+    {
+        try (Stream<Path> paths = Files.walk(workDir))
+        {
+            for (Path path : (Iterable<Path>) paths.sorted(Comparator.reverseOrder())::iterator)
+            {
+                Files.delete(path);
+            }
+        }
+    }
+
+    /**
+     * Creates the account whose efforts are logged.
+     *
+     * @param workDir The scratch directory.
+     * @return The credential file of the account.
+     * @throws IOException If an I/O error occurs.
+     */
+    private static Path createBenchUser(Path workDir) throws IOException
+    {
+        Path benchUser = workDir.resolve(UserStorage.USER_FOLDER_NAME).resolve("bench_encrypted.txt");
+        UserStorage.createUserFile(benchUser, "bench", "bench", "bench");
+        return benchUser;
+    }
+
+    /**
+     * Writes encrypted credential files, user0 to userN with the hashes of password0 to passwordN, and indexes
+     * them. The hashes are derived in parallel. Files left by an earlier run in the same directory are reused.
+     *
+     * @param workDir The scratch directory.
+     * @param users   Number of users.
+     * @param random  Source of the synthetic data.
+     * @throws IOException If an I/O error occurs.
+     */
+    private static void generateUsers(Path workDir, int users, Random random) throws IOException
+    {
+        Path userFolder = workDir.resolve(UserStorage.USER_FOLDER_NAME);
+        Files.createDirectories(userFolder);
+        String[] names = new String[users];
+        for (int user = 0; user < users; user++)
+        {
+            names[user] = WORDS[random.nextInt(WORDS.length)];
+        }
+        IntStream.range(0, users).parallel().forEach(user -> {
+            Path userFile = userFolder.resolve("user" + user + "_encrypted.txt");
+            if (!Files.exists(userFile))
+            {
+                String content = "Name: " + names[user] + " user\nUsername: user" + user
+                        + "\nPasswordHash: " + CredentialVerifier.hash("password" + user) + "\n";
+                try
+                {
+                    Files.writeString(userFile, EncryptDecrypt.encryptString(content), StandardCharsets.UTF_8);
+                }
+                catch (IOException e)
+                {
+                    throw new UncheckedIOException(e);
+                }
+            }
+        });
+        UserIndex.refresh();
+    }
+
+    /**
+     * Writes finalized backlog items to the Planning Poker archive and indexes them.
+     *
+     * @param workDir      The scratch directory.
+     * @param archiveItems Number of items.
+     * @param random       Source of the synthetic data.
+     * @throws IOException If an I/O error occurs.
+     */
+    private static void generateArchive(Path workDir, int archiveItems, Random random) throws IOException
+    {
+        Path archiveFolder = workDir.resolve("planning_poker_data_encrypted");
+        Files.createDirectories(archiveFolder);
+        for (int item = 0; item < archiveItems; item++)
+        {
+            VoteAccumulator votes = new VoteAccumulator();
+            for (int vote = 0; vote < 5; vote++)
+            {
+                votes.add(VoteAccumulator.DECK[random.nextInt(VoteAccumulator.DECK.length)]);
+            }
+            String content = "Backlog Item: " + WORDS[random.nextInt(WORDS.length)] + " " + WORDS[random.nextInt(WORDS.length)]
+                    + " " + item + "\nProject: Project " + random.nextInt(50) + "\nLanguage: " + LANGUAGES[random.nextInt(LANGUAGES.length)]
+                    + "\nKeywords: " + WORDS[random.nextInt(WORDS.length)] + "\nUsers: 5\n" + votes.formatStatistics() + "\n";
+            Files.writeString(archiveFolder.resolve("item" + item + "_encrypted.txt"), EncryptDecrypt.encryptString(content),
+                    StandardCharsets.UTF_8);
+        }
+        PlanningPokerIndex.search(""); // Loads the index and indexes the new files
+    }
+
+    /**
+     * Logs efforts for a user until the log holds the given number of bytes, spread over the past year.
+     *
+     * @param benchUser The credential file of the user.
+     * @param logBytes  Size of the log.
+     * @param random    Source of the synthetic data.
+     * @throws IOException If an I/O error occurs.
+     */
+    private static void generateLog(Path benchUser, long logBytes, Random random) throws IOException
+    {
+        long now = System.currentTimeMillis();
+        long written = 0;
+        int counter = 1;
+        while (written < logBytes)
+        {
+            long startMillis = now - (long) (random.nextDouble() * TimeUnit.DAYS.toMillis(365));
+            long durationNanos = TimeUnit.MINUTES.toNanos(1 + random.nextInt(240));
+            String project = "Project " + random.nextInt(10);
+            String lifeCycle = LIFE_CYCLES[random.nextInt(LIFE_CYCLES.length)];
+            String category = CATEGORIES[random.nextInt(CATEGORIES.length)];
+            String deliverable = WORDS[random.nextInt(WORDS.length)];
+
+            byte[] record = EffortRecord.encodeEffort(counter++, startMillis, startMillis + durationNanos / 1_000_000,
+                    durationNanos, lifeCycle, category, project, deliverable);
+            EffortAggregates.logEffort(benchUser, record, startMillis, durationNanos, project, lifeCycle, category, deliverable);
+            written += record.length;
+        }
+        EffortLogWriter.closeAll();
+        EffortAggregates.saveAll();
+    }
+
+    /**
+     * Builds random text of words separated by spaces.
+     *
+     * @param random Source of the words.
+     * @param length Length of the text.
+     * @return The text.
+     */
+    private static String randomText(Random random, int length)
+    {
+        StringBuilder text = new StringBuilder(length);
+        while (text.length() < length)
+        {
+            text.append(WORDS[random.nextInt(WORDS.length)]).append(' ');
+        }
+        return text.substring(0, length);
+    }
+}